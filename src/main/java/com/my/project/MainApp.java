@@ -1,5 +1,9 @@
 package com.my.project;
 
+import com.my.project.service.AnalyticsCache;
+import com.my.project.service.AvailabilityIndex;
+import com.my.project.service.OccupancyCalendar;
+import com.my.project.service.ReservationRollups;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -14,6 +18,20 @@ public class MainApp extends Application {
         primaryStage.setTitle("Connexion - Réservation de salles");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        // Warm up the in-memory availability index and occupancy calendar while the user logs in
+        Thread indexThread = new Thread(() -> {
+            AvailabilityIndex.getInstance().load();
+            OccupancyCalendar.getInstance().rebuild();
+        });
+        indexThread.setDaemon(true);
+        indexThread.start();
+
+        // Check the rollup tables (backfilling them on first start) off the UI thread
+        ReservationRollups.getInstance().backfillInBackground();
+
+        // Precompute the standard analytics windows in the background
+        AnalyticsCache.getInstance().precompute();
     }
 
 
@@ -2,6 +2,8 @@ package com.my.project.controller;
 
 import com.my.project.model.Utilisateur;
 import com.my.project.service.DashboardService;
+import com.my.project.util.CacheMetrics;
+import com.my.project.util.PoolMetrics;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -9,6 +11,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
@@ -31,6 +34,14 @@ public class AdminDashboardController implements Initializable {
     @FXML private Label activeReservationsCount;
     @FXML private Label pendingRequestsCount;
 
+    // Connection pool
+    @FXML private Label poolActiveCount;
+    @FXML private Label poolIdleCount;
+    @FXML private Label poolWaitingCount;
+    @FXML private Label poolAcquireTime;
+    @FXML private Label cacheHitRatio;
+    private Timeline poolRefresh;
+
     // Dashboard Cards
     @FXML private VBox usersCard;
     @FXML private VBox roomsCard;
@@ -55,6 +66,7 @@ public class AdminDashboardController implements Initializable {
         setupCardClickHandlers();
         // Load dashboard data after UI is initialized
         Platform.runLater(this::loadDashboardData);
+        startPoolMonitoring();
     }
 
     public void setUtilisateur(Utilisateur utilisateur) {
@@ -120,6 +132,61 @@ public class AdminDashboardController implements Initializable {
         backgroundThread.start();
     }
 
+    private void startPoolMonitoring() {
+        // Pool and cache statistics are in-memory counters: refreshing them does not touch the database
+        poolRefresh = new Timeline(new KeyFrame(javafx.util.Duration.seconds(5), e -> {
+            updatePoolStatistics();
+            updateCacheStatistics();
+        }));
+        poolRefresh.setCycleCount(Timeline.INDEFINITE);
+        poolRefresh.play();
+        updatePoolStatistics();
+        updateCacheStatistics();
+    }
+
+    private void updateCacheStatistics() {
+        if (dashboardService == null || cacheHitRatio == null) return;
+        try {
+            CacheMetrics.CacheStatistics cache = dashboardService.getCacheStatistics();
+            cacheHitRatio.setText(String.format("%.0f%%", cache.getHitRatio()));
+
+            StringBuilder details = new StringBuilder("Cache de second niveau : ")
+                    .append(cache.getHits()).append(" succès, ")
+                    .append(cache.getMisses()).append(" échecs\n")
+                    .append("Requêtes : ").append(cache.getQueryHits()).append(" succès, ")
+                    .append(cache.getQueryMisses()).append(" échecs\n");
+            for (CacheMetrics.RegionStatistics region : cache.getRegions()) {
+                details.append(region.getRegion().replace("com.my.project.model.", ""))
+                        .append(" : ").append(region.getHits()).append(" / ").append(region.getMisses())
+                        .append(" (").append(region.getElements()).append(" en mémoire)\n");
+            }
+            cacheHitRatio.setTooltip(new Tooltip(details.toString()));
+        } catch (Exception e) {
+            System.err.println("Error getting cache statistics: " + e.getMessage());
+        }
+    }
+
+    private void updatePoolStatistics() {
+        if (dashboardService == null || poolActiveCount == null) return;
+        try {
+            PoolMetrics.PoolStatistics pool = dashboardService.getPoolStatistics();
+            poolActiveCount.setText(pool.getActiveConnections() + " / " + pool.getMaximumPoolSize());
+            poolIdleCount.setText(String.valueOf(pool.getIdleConnections()));
+            poolWaitingCount.setText(String.valueOf(pool.getThreadsAwaiting()));
+            poolAcquireTime.setText(String.format("%.1f ms", pool.getAverageAcquireMs()));
+
+            StringBuilder histogram = new StringBuilder("Temps d'acquisition (")
+                    .append(pool.getAcquisitions()).append(" connexions, max ")
+                    .append(String.format("%.1f ms", pool.getMaxAcquireMs()))
+                    .append(", ").append(pool.getTimeouts()).append(" expirations)\n");
+            pool.getAcquireHistogram().forEach((bucket, count) ->
+                    histogram.append(bucket).append(" : ").append(count).append("\n"));
+            poolAcquireTime.setTooltip(new Tooltip(histogram.toString()));
+        } catch (Exception e) {
+            System.err.println("Error getting pool statistics: " + e.getMessage());
+        }
+    }
+
     private void updateStatistics(Map<String, Integer> stats) {
         if (activeUsersCount != null) {
             activeUsersCount.setText(String.valueOf(stats.getOrDefault("activeUsers", 0)));
@@ -420,7 +487,9 @@ public class AdminDashboardController implements Initializable {
             // Log the logout action
             if (utilisateur != null && dashboardService != null) {
                 dashboardService.logUserActivity(utilisateur, "Logout");
-                dashboardService.shutdown();
+            }
+            if (poolRefresh != null) {
+                poolRefresh.stop();
             }
 
             // Close current window
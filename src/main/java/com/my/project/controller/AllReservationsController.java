@@ -3,6 +3,8 @@ package com.my.project.controller;
 import com.my.project.model.Reservation;
 import com.my.project.model.Salle;
 import com.my.project.model.Utilisateur;
+import com.my.project.service.BaseService;
+import com.my.project.service.ReservationEvents;
 import com.my.project.service.ReservationService;
 import com.my.project.service.ReportService;
 import com.my.project.util.HibernateUtil;
@@ -30,6 +32,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
 
 public class AllReservationsController implements Initializable {
 
@@ -64,6 +67,7 @@ public class AllReservationsController implements Initializable {
     private final ReservationService reservationService;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private ObservableList<ReservationDisplay> allReservations;
+    private Task<Void> reservationsLoadTask;
     private Utilisateur currentUser;
 
     public AllReservationsController() {
@@ -206,19 +210,12 @@ public class AllReservationsController implements Initializable {
             }
 
             // Check for conflicts with other approved reservations
-            List<Reservation> conflits = session.createQuery(
-                            "FROM Reservation WHERE salle = :salle AND id <> :id AND statut = :statut AND " +
-                                    "((:debut < dateFin AND :fin > dateDebut))", Reservation.class)
-                    .setParameter("salle", reservation.getSalle())
-                    .setParameter("id", reservation.getId())
-                    .setParameter("statut", Reservation.StatutReservation.APPROUVEE)
-                    .setParameter("debut", reservation.getDateDebut())
-                    .setParameter("fin", reservation.getDateFin())
-                    .list();
-
-            if (!conflits.isEmpty()) {
+            List<Long> conflicts = reservationService.findApprovedConflicts(reservation.getSalle(),
+                    reservation.getDateDebut(), reservation.getDateFin(), reservation.getId());
+            if (!conflicts.isEmpty()) {
                 showWarningDialog("Conflit détecté",
-                        "Il y a déjà une réservation approuvée pour cette salle à ce créneau.\n" +
+                        "Il y a déjà une réservation approuvée pour cette salle à ce créneau (" +
+                                conflicts.stream().map(id -> "#" + id).collect(Collectors.joining(", ")) + ").\n" +
                                 "Veuillez vérifier les conflits avant d'approuver.");
                 return;
             }
@@ -233,6 +230,14 @@ public class AllReservationsController implements Initializable {
             if (result.isPresent()) {
                 Transaction tx = session.beginTransaction();
                 try {
+                    // Re-check in the transaction, another approval may have taken the slot
+                    if (reservationService.hasApprovedConflict(session, reservation.getSalle(),
+                            reservation.getDateDebut(), reservation.getDateFin(), reservation.getId())) {
+                        tx.rollback();
+                        showWarningDialog("Conflit détecté",
+                                "Il y a déjà une réservation approuvée pour cette salle à ce créneau.");
+                        return;
+                    }
                     Reservation merged = session.merge(reservation);
                     merged.setStatut(Reservation.StatutReservation.APPROUVEE);
                     merged.setDateValidation(LocalDateTime.now());
@@ -241,6 +246,7 @@ public class AllReservationsController implements Initializable {
 
                     session.update(merged);
                     tx.commit();
+                    ReservationEvents.committed(merged);
 
                     loadReservations(); // Refresh table
                     loadStatistics(); // Refresh stats
@@ -283,6 +289,7 @@ public class AllReservationsController implements Initializable {
 
                     session.update(merged);
                     tx.commit();
+                    ReservationEvents.committed(merged);
 
                     loadReservations(); // Refresh table
                     loadStatistics(); // Refresh stats
@@ -312,27 +319,31 @@ public class AllReservationsController implements Initializable {
     }
 
     private void loadReservations() {
-        Task<List<Reservation>> loadTask = new Task<List<Reservation>>() {
-            @Override
-            protected List<Reservation> call() throws Exception {
-                try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-                    return session.createQuery(
-                            "FROM Reservation r LEFT JOIN FETCH r.salle LEFT JOIN FETCH r.utilisateur LEFT JOIN FETCH r.validateurAdmin ORDER BY r.dateCreation DESC",
-                            Reservation.class).list();
-                }
-            }
+        if (reservationsLoadTask != null) {
+            reservationsLoadTask.cancel();
+        }
+        allReservations.clear();
+        reservationTable.setItems(allReservations);
 
+        Task<Void> loadTask = new Task<Void>() {
             @Override
-            protected void succeeded() {
-                List<Reservation> reservations = getValue();
-                Platform.runLater(() -> {
-                    allReservations.clear();
-                    for (Reservation r : reservations) {
-                        allReservations.add(new ReservationDisplay(r));
+            protected Void call() throws Exception {
+                // Most recent first, one keyset page at a time: the table fills while the rest loads
+                Long afterId = null;
+                List<Reservation> page;
+                do {
+                    page = reservationService.findPage(afterId, BaseService.PAGE_SIZE, BaseService.SortOrder.DESC);
+                    List<ReservationDisplay> rows = page.stream().map(ReservationDisplay::new).toList();
+                    Platform.runLater(() -> {
+                        if (isCancelled()) return;
+                        allReservations.addAll(rows);
+                        updateTableInfo();
+                    });
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).getId();
                     }
-                    reservationTable.setItems(allReservations);
-                    updateTableInfo();
-                });
+                } while (page.size() == BaseService.PAGE_SIZE && !isCancelled());
+                return null;
             }
 
             @Override
@@ -343,6 +354,7 @@ public class AllReservationsController implements Initializable {
                 });
             }
         };
+        reservationsLoadTask = loadTask;
 
         Thread loadThread = new Thread(loadTask);
         loadThread.setDaemon(true);
@@ -518,22 +530,17 @@ public class AllReservationsController implements Initializable {
             LocalDateTime dateFin = LocalDateTime.of(date, fin);
 
             // Check for conflicts
-            List<Reservation> conflits = session.createQuery(
-                            "FROM Reservation WHERE salle = :salle AND id <> :id AND statut = :statut AND " +
-                                    "((:debut < dateFin AND :fin > dateDebut))", Reservation.class)
-                    .setParameter("salle", salle)
-                    .setParameter("id", reservation.getId())
-                    .setParameter("statut", Reservation.StatutReservation.APPROUVEE)
-                    .setParameter("debut", dateDebut)
-                    .setParameter("fin", dateFin)
-                    .list();
-
-            if (!conflits.isEmpty()) {
+            if (reservationService.hasApprovedConflict(salle, dateDebut, dateFin, reservation.getId())) {
                 showWarningDialog("Conflit détecté", "Ce créneau est déjà réservé pour cette salle.");
                 return;
             }
 
             Transaction tx = session.beginTransaction();
+            if (reservationService.hasApprovedConflict(session, salle, dateDebut, dateFin, reservation.getId())) {
+                tx.rollback();
+                showWarningDialog("Conflit détecté", "Ce créneau est déjà réservé pour cette salle.");
+                return;
+            }
             Reservation merged = session.merge(reservation);
             merged.setDateDebut(dateDebut);
             merged.setDateFin(dateFin);
@@ -541,6 +548,7 @@ public class AllReservationsController implements Initializable {
             merged.setDescription(description);
             session.update(merged);
             tx.commit();
+            ReservationEvents.committed(merged);
 
             loadReservations(); // Refresh table
             showSuccessDialog("Succès", "Réservation modifiée avec succès.");
@@ -579,6 +587,7 @@ public class AllReservationsController implements Initializable {
                 if (reservation != null) {
                     session.remove(reservation);
                     tx.commit();
+                    ReservationEvents.deleted(reservation);
                     loadReservations(); // Refresh table
                     loadStatistics(); // Refresh stats
                     showSuccessDialog("Succès", "Réservation supprimée avec succès.");
@@ -607,24 +616,35 @@ public class AllReservationsController implements Initializable {
     private void handleExporter() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Exporter les réservations");
+        // Excel in French locales splits CSV files on ';'
+        FileChooser.ExtensionFilter excelCsv = new FileChooser.ExtensionFilter("Fichier CSV pour Excel (;)", "*.csv");
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("Fichier PDF", "*.pdf"),
-                new FileChooser.ExtensionFilter("Fichier Excel", "*.xlsx")
+                new FileChooser.ExtensionFilter("Fichier Excel", "*.xlsx"),
+                new FileChooser.ExtensionFilter("Fichier CSV", "*.csv", "*.csv.gz"),
+                excelCsv,
+                new FileChooser.ExtensionFilter("Fichier TSV", "*.tsv", "*.tsv.gz")
         );
 
         File file = fileChooser.showSaveDialog(reservationTable.getScene().getWindow());
         if (file != null) {
-            exportReservations(file);
+            String name = file.getName().toLowerCase();
+            char delimiter = name.contains(".tsv") ? '\t'
+                    : fileChooser.getSelectedExtensionFilter() == excelCsv ? ';' : ',';
+            exportReservations(file, delimiter);
         }
     }
 
-    private void exportReservations(File file) {
+    private void exportReservations(File file, char delimiter) {
         Task<String> exportTask = new Task<String>() {
             @Override
             protected String call() throws Exception {
                 ReportService reportService = new ReportService();
-                if (file.getName().endsWith(".pdf")) {
+                String name = file.getName().toLowerCase();
+                if (name.endsWith(".pdf")) {
                     return reportService.generatePDFReport("reservations");
+                } else if (name.matches(".*\\.(csv|tsv)(\\.gz)?")) {
+                    return reportService.generateCSVReport("reservations", delimiter, name.endsWith(".gz"));
                 } else {
                     return reportService.generateExcelReport("reservations");
                 }
@@ -1,7 +1,9 @@
 package com.my.project.controller;
 
 import com.my.project.model.Utilisateur;
+import com.my.project.service.AnalyticsCache;
 import com.my.project.service.AnalyticsService;
+import com.my.project.service.ReservationCube;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -14,6 +16,9 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 
@@ -34,6 +39,8 @@ public class AnalyticsController implements Initializable {
     @FXML private PieChart roomUsagePieChart;
     @FXML private BarChart<String, Number> peakHoursBarChart;
     @FXML private BarChart<String, Number> equipmentPopularityChart;
+    @FXML private BarChart<String, Number> percentilesBarChart;
+    @FXML private BarChart<String, Number> breakdownBarChart;
 
     // Tables
     @FXML private TableView<UserAnalytics> topUsersTable;
@@ -64,6 +71,7 @@ public class AnalyticsController implements Initializable {
 
     // Controls
     @FXML private ComboBox<String> periodComboBox;
+    @FXML private ComboBox<String> breakdownComboBox;
 
     private AnalyticsService analyticsService;
     private Utilisateur currentUser;
@@ -73,6 +81,7 @@ public class AnalyticsController implements Initializable {
         analyticsService = new AnalyticsService();
 
         setupPeriodSelector();
+        setupBreakdownSelector();
         setupTableColumns();
         loadAnalytics();
     }
@@ -96,6 +105,17 @@ public class AnalyticsController implements Initializable {
         periodComboBox.setOnAction(e -> refreshAnalytics());
     }
 
+    private void setupBreakdownSelector() {
+        ObservableList<String> dimensions = FXCollections.observableArrayList();
+        for (ReservationCube.Dimension dimension : ReservationCube.Dimension.values()) {
+            dimensions.add(dimension.getLabel());
+        }
+        breakdownComboBox.setItems(dimensions);
+        breakdownComboBox.setValue(ReservationCube.Dimension.SALLE_TYPE.getLabel());
+
+        breakdownComboBox.setOnAction(e -> loadBreakdown());
+    }
+
     private void setupTableColumns() {
         // User table columns
         userNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
@@ -163,8 +183,8 @@ public class AnalyticsController implements Initializable {
             protected Void call() throws Exception {
                 int days = getPeriodDays();
 
-                // Load analytics data
-                AnalyticsService.AnalyticsData data = analyticsService.getAnalyticsData(days);
+                // Load analytics data, computed only if not cached
+                AnalyticsService.AnalyticsData data = AnalyticsCache.getInstance().get(days);
 
                 Platform.runLater(() -> updateUI(data));
                 return null;
@@ -182,6 +202,46 @@ public class AnalyticsController implements Initializable {
         Thread analyticsThread = new Thread(analyticsTask);
         analyticsThread.setDaemon(true);
         analyticsThread.start();
+
+        loadBreakdown();
+    }
+
+    private void loadBreakdown() {
+        int days = getPeriodDays();
+        ReservationCube.Dimension dimension = getBreakdownDimension();
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        Task<List<ReservationCube.CubeRow>> breakdownTask = new Task<List<ReservationCube.CubeRow>>() {
+            @Override
+            protected List<ReservationCube.CubeRow> call() throws Exception {
+                return ReservationCube.getInstance().query(List.of(dimension),
+                        EnumSet.allOf(ReservationCube.Measure.class), tomorrow.minusDays(days), tomorrow);
+            }
+
+            @Override
+            protected void succeeded() {
+                updateBreakdownChart(getValue());
+            }
+
+            @Override
+            protected void failed() {
+                showErrorDialog("Erreur de chargement",
+                        "Erreur lors du chargement de la répartition: " + getException().getMessage());
+            }
+        };
+
+        Thread breakdownThread = new Thread(breakdownTask);
+        breakdownThread.setDaemon(true);
+        breakdownThread.start();
+    }
+
+    private ReservationCube.Dimension getBreakdownDimension() {
+        for (ReservationCube.Dimension dimension : ReservationCube.Dimension.values()) {
+            if (dimension.getLabel().equals(breakdownComboBox.getValue())) {
+                return dimension;
+            }
+        }
+        return ReservationCube.Dimension.SALLE_TYPE;
     }
 
     private void updateUI(AnalyticsService.AnalyticsData data) {
@@ -222,13 +282,16 @@ public class AnalyticsController implements Initializable {
         updateReservationsChart(data.getReservationsOverTime());
 
         // Room usage pie chart
-        updateRoomUsageChart(data.getRoomUsageStats());
+        updateRoomUsageChart(data.getRoomUsageStats(), data.getRoomTypeOccupancy());
 
         // Peak hours bar chart
         updatePeakHoursChart(data.getPeakHoursStats());
 
         // Equipment popularity chart
         updateEquipmentChart(data.getEquipmentStats());
+
+        // Lead time, duration and approval delay percentiles chart
+        updatePercentilesChart(data);
     }
 
     private void updateReservationsChart(Map<String, Integer> data) {
@@ -243,12 +306,15 @@ public class AnalyticsController implements Initializable {
         reservationsLineChart.getData().add(series);
     }
 
-    private void updateRoomUsageChart(Map<String, Integer> data) {
+    private void updateRoomUsageChart(Map<String, Integer> data, Map<String, Double> occupancy) {
         roomUsagePieChart.getData().clear();
         ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
 
+        // Each slice is labelled with the type's occupancy within opening hours
         for (Map.Entry<String, Integer> entry : data.entrySet()) {
-            pieData.add(new PieChart.Data(entry.getKey(), entry.getValue()));
+            Double rate = occupancy.get(entry.getKey());
+            String label = rate != null ? String.format("%s (%.0f%% occupé)", entry.getKey(), rate) : entry.getKey();
+            pieData.add(new PieChart.Data(label, entry.getValue()));
         }
 
         roomUsagePieChart.setData(pieData);
@@ -278,6 +344,48 @@ public class AnalyticsController implements Initializable {
         equipmentPopularityChart.getData().add(series);
     }
 
+    private void updatePercentilesChart(AnalyticsService.AnalyticsData data) {
+        percentilesBarChart.getData().clear();
+        Map<String, AnalyticsService.PercentileData> measures = new LinkedHashMap<>();
+        measures.put("Anticipation", data.getLeadTimePercentiles());
+        measures.put("Durée", data.getDurationPercentiles());
+        measures.put("Validation", data.getApprovalDelayPercentiles());
+
+        XYChart.Series<String, Number> p50 = new XYChart.Series<>();
+        p50.setName("P50");
+        XYChart.Series<String, Number> p90 = new XYChart.Series<>();
+        p90.setName("P90");
+        XYChart.Series<String, Number> p99 = new XYChart.Series<>();
+        p99.setName("P99");
+
+        // Percentiles are in minutes, shown in hours
+        for (Map.Entry<String, AnalyticsService.PercentileData> entry : measures.entrySet()) {
+            p50.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue().getP50() / 60.0));
+            p90.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue().getP90() / 60.0));
+            p99.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue().getP99() / 60.0));
+        }
+
+        percentilesBarChart.getData().addAll(List.of(p50, p90, p99));
+    }
+
+    private void updateBreakdownChart(List<ReservationCube.CubeRow> rows) {
+        breakdownBarChart.getData().clear();
+        XYChart.Series<String, Number> reservations = new XYChart.Series<>();
+        reservations.setName("Réservations");
+        XYChart.Series<String, Number> hours = new XYChart.Series<>();
+        hours.setName("Heures");
+        XYChart.Series<String, Number> users = new XYChart.Series<>();
+        users.setName("Utilisateurs");
+
+        for (ReservationCube.CubeRow row : rows) {
+            reservations.getData().add(new XYChart.Data<>(row.getKey(0), row.getCount()));
+            hours.getData().add(new XYChart.Data<>(row.getKey(0), row.getMinutes() / 60.0));
+            users.getData().add(new XYChart.Data<>(row.getKey(0), row.getDistinctUsers()));
+        }
+
+        breakdownBarChart.getData().addAll(List.of(reservations, hours, users));
+    }
+
     private void updateTables(AnalyticsService.AnalyticsData data) {
         // Update top users table
         ObservableList<UserAnalytics> userAnalytics = FXCollections.observableArrayList();
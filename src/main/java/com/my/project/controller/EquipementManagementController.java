@@ -3,6 +3,8 @@ package com.my.project.controller;
 import com.my.project.model.Equipement;
 import com.my.project.model.Salle;
 import com.my.project.model.Utilisateur;
+import com.my.project.service.BaseService;
+import com.my.project.service.EquipementIndex;
 import com.my.project.service.EquipementService;
 import com.my.project.service.ReportService;
 import com.my.project.util.HibernateUtil;
@@ -62,6 +64,7 @@ public class EquipementManagementController implements Initializable {
 
     private final EquipementService equipementService;
     private ObservableList<EquipmentDisplay> allEquipment;
+    private Task<Void> equipmentLoadTask;
     private Utilisateur currentUser;
 
     public EquipementManagementController() {
@@ -200,23 +203,30 @@ public class EquipementManagementController implements Initializable {
     }
 
     private void loadEquipment() {
-        Task<List<Equipement>> loadTask = new Task<List<Equipement>>() {
-            @Override
-            protected List<Equipement> call() throws Exception {
-                return equipementService.findAll();
-            }
+        if (equipmentLoadTask != null) {
+            equipmentLoadTask.cancel();
+        }
+        allEquipment.clear();
+        equipementTable.setItems(allEquipment);
 
+        Task<Void> loadTask = new Task<Void>() {
             @Override
-            protected void succeeded() {
-                List<Equipement> equipments = getValue();
-                Platform.runLater(() -> {
-                    allEquipment.clear();
-                    for (Equipement eq : equipments) {
-                        allEquipment.add(new EquipmentDisplay(eq));
+            protected Void call() throws Exception {
+                Long afterId = null;
+                List<Equipement> page;
+                do {
+                    page = equipementService.findPage(afterId, BaseService.PAGE_SIZE, BaseService.SortOrder.ASC);
+                    List<EquipmentDisplay> rows = page.stream().map(EquipmentDisplay::new).toList();
+                    Platform.runLater(() -> {
+                        if (isCancelled()) return;
+                        allEquipment.addAll(rows);
+                        updateTableInfo();
+                    });
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).getId();
                     }
-                    equipementTable.setItems(allEquipment);
-                    updateTableInfo();
-                });
+                } while (page.size() == BaseService.PAGE_SIZE && !isCancelled());
+                return null;
             }
 
             @Override
@@ -227,6 +237,7 @@ public class EquipementManagementController implements Initializable {
                 });
             }
         };
+        equipmentLoadTask = loadTask;
 
         Thread loadThread = new Thread(loadTask);
         loadThread.setDaemon(true);
@@ -437,6 +448,7 @@ public class EquipementManagementController implements Initializable {
             Transaction tx = session.beginTransaction();
             session.merge(equipment);
             tx.commit();
+            EquipementIndex.getInstance().invalidate();
             loadEquipment();
             showSuccessDialog("Succès", "Équipement modifié avec succès.");
         } catch (Exception e) {
@@ -483,6 +495,7 @@ public class EquipementManagementController implements Initializable {
 
                     session.remove(equipment);
                     tx.commit();
+                    EquipementIndex.getInstance().invalidate();
                     loadEquipment();
                     showSuccessDialog("Succès", "Équipement supprimé avec succès.");
                 } else {
@@ -571,6 +584,7 @@ public class EquipementManagementController implements Initializable {
             }
 
             tx.commit();
+            EquipementIndex.getInstance().invalidate();
             loadEquipment();
             showSuccessDialog("Succès", "Associations mises à jour avec succès.");
         } catch (Exception e) {
@@ -3,6 +3,7 @@ package com.my.project.controller;
 import com.my.project.model.Reservation;
 import com.my.project.model.Salle;
 import com.my.project.model.Utilisateur;
+import com.my.project.service.ReservationEvents;
 import com.my.project.service.ReservationService;
 import com.my.project.service.ReportService;
 import com.my.project.util.HibernateUtil;
@@ -33,9 +34,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
 
 public class MyReservationsController implements Initializable {
 
@@ -652,28 +656,25 @@ public class MyReservationsController implements Initializable {
             }
 
             // Check for conflicts with other APPROVED reservations
-            List<Reservation> conflicts = session.createQuery(
-                            "FROM Reservation WHERE salle = :salle AND id <> :id AND statut = :statut AND " +
-                                    "((:debut < dateFin AND :fin > dateDebut))", Reservation.class)
-                    .setParameter("salle", reservation.getSalle())
-                    .setParameter("id", reservation.getId())
-                    .setParameter("statut", Reservation.StatutReservation.APPROUVEE)
-                    .setParameter("debut", dateDebut)
-                    .setParameter("fin", dateFin)
-                    .list();
-
-            if (!conflicts.isEmpty()) {
+            if (reservationService.hasApprovedConflict(reservation.getSalle(), dateDebut, dateFin, reservation.getId())) {
                 showWarningDialog("Conflit détecté", "Ce créneau est déjà réservé pour cette salle.");
                 return;
             }
 
             Transaction tx = session.beginTransaction();
+            if (reservationService.hasApprovedConflict(session, reservation.getSalle(), dateDebut, dateFin,
+                    reservation.getId())) {
+                tx.rollback();
+                showWarningDialog("Conflit détecté", "Ce créneau est déjà réservé pour cette salle.");
+                return;
+            }
             Reservation merged = session.merge(reservation);
             merged.setDateDebut(dateDebut);
             merged.setDateFin(dateFin);
             merged.setDescription(description);
             session.update(merged);
             tx.commit();
+            ReservationEvents.committed(merged);
 
             loadReservations();
             showSuccessDialog("Succès", "Réservation modifiée avec succès.");
@@ -717,13 +718,19 @@ public class MyReservationsController implements Initializable {
                 if (reservation != null) {
                     // For pending requests, delete the record
                     // For approved reservations, mark as cancelled
-                    if (reservation.getStatut() == Reservation.StatutReservation.EN_ATTENTE) {
+                    boolean supprimee = reservation.getStatut() == Reservation.StatutReservation.EN_ATTENTE;
+                    if (supprimee) {
                         session.remove(reservation);
                     } else {
                         reservation.setStatut(Reservation.StatutReservation.ANNULEE);
                         session.update(reservation);
                     }
                     tx.commit();
+                    if (supprimee) {
+                        ReservationEvents.deleted(reservation);
+                    } else {
+                        ReservationEvents.committed(reservation);
+                    }
                     loadReservations();
                     loadStatistics();
                     showSuccessDialog("Succès", "Réservation annulée avec succès.");
@@ -755,12 +762,14 @@ public class MyReservationsController implements Initializable {
 
             DatePicker datePicker = new DatePicker(LocalDate.now().plusDays(1));
             TextField heureField = new TextField(original.getDateDebut().toLocalTime().toString());
+            Spinner<Integer> semainesSpinner = new Spinner<>(1, 52, 1);
 
             GridPane grid = new GridPane();
             grid.setHgap(10);
             grid.setVgap(10);
             grid.addRow(0, new Label("Nouvelle date:"), datePicker);
             grid.addRow(1, new Label("Heure début:"), heureField);
+            grid.addRow(2, new Label("Nombre de semaines:"), semainesSpinner);
 
             dialog.getDialogPane().setContent(grid);
             dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
@@ -779,47 +788,61 @@ public class MyReservationsController implements Initializable {
 
             Optional<LocalDateTime> result = dialog.showAndWait();
             if (result.isPresent()) {
-                createDuplicateReservation(original, result.get());
+                createDuplicateReservations(original, result.get(), semainesSpinner.getValue());
             }
         }
     }
 
-    private void createDuplicateReservation(Reservation original, LocalDateTime newStartTime) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+    /**
+     * Create one pending copy of the reservation per week, starting at newStartTime. The whole
+     * series is checked with one batched query and written in a single transaction.
+     */
+    private void createDuplicateReservations(Reservation original, LocalDateTime newStartTime, int semaines) {
+        try {
             long duration = ChronoUnit.MINUTES.between(original.getDateDebut(), original.getDateFin());
-            LocalDateTime newEndTime = newStartTime.plusMinutes(duration);
-
-            // Check for conflicts with approved reservations
-            List<Reservation> conflicts = session.createQuery(
-                            "FROM Reservation WHERE salle = :salle AND statut = :statut AND " +
-                                    "((:debut < dateFin AND :fin > dateDebut))", Reservation.class)
-                    .setParameter("salle", original.getSalle())
-                    .setParameter("statut", Reservation.StatutReservation.APPROUVEE)
-                    .setParameter("debut", newStartTime)
-                    .setParameter("fin", newEndTime)
-                    .list();
-
-            if (!conflicts.isEmpty()) {
-                showWarningDialog("Conflit détecté", "Ce créneau est déjà réservé pour cette salle.");
-                return;
+            List<ReservationService.SlotRequest> slots = new ArrayList<>();
+            for (int semaine = 0; semaine < semaines; semaine++) {
+                LocalDateTime debut = newStartTime.plusWeeks(semaine);
+                slots.add(new ReservationService.SlotRequest(original.getSalle().getId(), debut,
+                        debut.plusMinutes(duration)));
             }
 
-            // Create new request (status: EN_ATTENTE)
-            Reservation duplicate = new Reservation();
-            duplicate.setUtilisateur(original.getUtilisateur());
-            duplicate.setSalle(original.getSalle());
-            duplicate.setDateDebut(newStartTime);
-            duplicate.setDateFin(newEndTime);
-            duplicate.setDescription(original.getDescription() + " (Copie)");
-            duplicate.setStatut(Reservation.StatutReservation.EN_ATTENTE);
-            duplicate.setDateCreation(LocalDateTime.now());
+            // Check every occurrence against the approved reservations; approval re-checks in its transaction
+            Map<ReservationService.SlotRequest, List<Long>> conflicts =
+                    reservationService.findConflicts(slots, Reservation.StatutReservation.APPROUVEE);
+            List<String> occupes = slots.stream()
+                    .filter(slot -> !conflicts.get(slot).isEmpty())
+                    .map(slot -> slot.getDebut().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) + " (" +
+                            conflicts.get(slot).stream().map(id -> "#" + id).collect(Collectors.joining(", ")) + ")")
+                    .toList();
+            if (!occupes.isEmpty()) {
+                showWarningDialog("Conflit détecté", "Ces créneaux sont déjà réservés pour cette salle :\n" +
+                        String.join("\n", occupes));
+                return;
+            }
 
-            Transaction tx = session.beginTransaction();
-            session.persist(duplicate);
-            tx.commit();
+            // Create the new requests (status: EN_ATTENTE)
+            List<Reservation> duplicates = new ArrayList<>();
+            for (ReservationService.SlotRequest slot : slots) {
+                Reservation duplicate = new Reservation();
+                duplicate.setUtilisateur(original.getUtilisateur());
+                duplicate.setSalle(original.getSalle());
+                duplicate.setDateDebut(slot.getDebut());
+                duplicate.setDateFin(slot.getFin());
+                duplicate.setDescription(original.getDescription() + " (Copie)");
+                duplicate.setStatut(Reservation.StatutReservation.EN_ATTENTE);
+                duplicate.setDateCreation(LocalDateTime.now());
+                duplicates.add(duplicate);
+            }
+            reservationService.saveAll(duplicates);
 
             loadReservations();
-            showSuccessDialog("Succès", "Demande de réservation dupliquée avec succès. Elle sera examinée par un administrateur.");
+            if (semaines == 1) {
+                showSuccessDialog("Succès", "Demande de réservation dupliquée avec succès. Elle sera examinée par un administrateur.");
+            } else {
+                showSuccessDialog("Succès", semaines + " demandes de réservation créées avec succès. " +
+                        "Elles seront examinées par un administrateur.");
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -862,25 +885,35 @@ public class MyReservationsController implements Initializable {
     private void handleExport() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Exporter mes réservations");
+        // Excel in French locales splits CSV files on ';'
+        FileChooser.ExtensionFilter excelCsv = new FileChooser.ExtensionFilter("Fichier CSV pour Excel (;)", "*.csv");
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("Fichier PDF", "*.pdf"),
-                new FileChooser.ExtensionFilter("Fichier Excel", "*.xlsx")
+                new FileChooser.ExtensionFilter("Fichier Excel", "*.xlsx"),
+                new FileChooser.ExtensionFilter("Fichier CSV", "*.csv", "*.csv.gz"),
+                excelCsv,
+                new FileChooser.ExtensionFilter("Fichier TSV", "*.tsv", "*.tsv.gz")
         );
 
         File file = fileChooser.showSaveDialog(reservationTable.getScene().getWindow());
         if (file != null) {
-            exportReservations(file);
+            String name = file.getName().toLowerCase();
+            char delimiter = name.contains(".tsv") ? '\t'
+                    : fileChooser.getSelectedExtensionFilter() == excelCsv ? ';' : ',';
+            exportReservations(file, delimiter);
         }
     }
 
-    private void exportReservations(File file) {
+    private void exportReservations(File file, char delimiter) {
         Task<String> exportTask = new Task<String>() {
             @Override
             protected String call() throws Exception {
-                ReportService reportService = new ReportService();
-                // You could create a specific method for user reservations
-                if (file.getName().endsWith(".pdf")) {
+                ReportService reportService = new ReportService(utilisateur);
+                String name = file.getName().toLowerCase();
+                if (name.endsWith(".pdf")) {
                     return reportService.generatePDFReport("mes_reservations");
+                } else if (name.matches(".*\\.(csv|tsv)(\\.gz)?")) {
+                    return reportService.generateCSVReport("mes_reservations", delimiter, name.endsWith(".gz"));
                 } else {
                     return reportService.generateExcelReport("mes_reservations");
                 }
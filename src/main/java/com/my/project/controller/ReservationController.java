@@ -3,6 +3,9 @@ package com.my.project.controller;
 import com.my.project.model.Reservation;
 import com.my.project.model.Salle;
 import com.my.project.model.Utilisateur;
+import com.my.project.service.ReservationEvents;
+import com.my.project.service.ReservationService;
+import com.my.project.service.SalleService;
 import com.my.project.util.HibernateUtil;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -14,6 +17,7 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 public class ReservationController {
@@ -26,11 +30,15 @@ public class ReservationController {
     @FXML private Label messageLabel;
 
     private Utilisateur utilisateurConnecte;
+    private final ReservationService reservationService = new ReservationService();
+    private final SalleService salleService = new SalleService();
+    private List<Salle> sallesDisponibles = List.of();
 
     @FXML
     public void initialize() {
         setupComboBox();
         loadSalles();
+        setupSlotListeners();
     }
 
     private void setupComboBox() {
@@ -62,14 +70,45 @@ public class ReservationController {
 
     private void loadSalles() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            List<Salle> salles = session.createQuery("FROM Salle WHERE disponible = true ORDER BY nom", Salle.class).list();
+            sallesDisponibles = session.createQuery("FROM Salle WHERE disponible = true ORDER BY nom", Salle.class)
+                    .setCacheable(true)
+                    .list();
             salleComboBox.getItems().clear();
-            salleComboBox.getItems().addAll(salles);
+            salleComboBox.getItems().addAll(sallesDisponibles);
         } catch (Exception e) {
             showErrorMessage("Erreur lors du chargement des salles.");
         }
     }
 
+    private void setupSlotListeners() {
+        datePicker.valueProperty().addListener((obs, oldValue, newValue) -> filterSallesForSlot());
+        heureDebutField.textProperty().addListener((obs, oldValue, newValue) -> filterSallesForSlot());
+        heureFinField.textProperty().addListener((obs, oldValue, newValue) -> filterSallesForSlot());
+    }
+
+    /**
+     * Only offer salles without an approved reservation on the chosen slot (occupancy calendar lookup)
+     */
+    private void filterSallesForSlot() {
+        LocalDate date = datePicker.getValue();
+        if (date == null) return;
+
+        LocalDateTime debut;
+        LocalDateTime fin;
+        try {
+            debut = LocalDateTime.of(date, LocalTime.parse(heureDebutField.getText().trim()));
+            fin = LocalDateTime.of(date, LocalTime.parse(heureFinField.getText().trim()));
+        } catch (DateTimeParseException e) {
+            return; // Heure incomplète : on garde la liste actuelle
+        }
+        if (!fin.isAfter(debut)) return;
+
+        Salle selection = salleComboBox.getValue();
+        List<Salle> libres = salleService.filterFreeAt(sallesDisponibles, debut, fin, false);
+        salleComboBox.getItems().setAll(libres);
+        salleComboBox.setValue(libres.contains(selection) ? selection : null);
+    }
+
     @FXML
     private void handleReservation() {
         if (!validateForm()) {
@@ -101,6 +140,13 @@ public class ReservationController {
             try (Session session = HibernateUtil.getSessionFactory().openSession()) {
                 Transaction tx = session.beginTransaction();
 
+                // Re-check in the transaction, the slot may have been approved meanwhile
+                if (reservationService.hasApprovedConflict(session, salle, dateDebut, dateFin, null)) {
+                    tx.rollback();
+                    showErrorMessage("Cette salle est déjà réservée (approuvée) pour ce créneau.");
+                    return;
+                }
+
                 Reservation reservation = new Reservation();
                 reservation.setSalle(salle);
                 reservation.setUtilisateur(utilisateurConnecte);
@@ -112,6 +158,7 @@ public class ReservationController {
 
                 session.persist(reservation);
                 tx.commit();
+                ReservationEvents.committed(reservation);
 
                 showSuccessMessage("Demande de réservation envoyée ! Elle sera examinée par un administrateur.");
                 clearForm();
@@ -228,18 +275,9 @@ public class ReservationController {
     }
 
     private boolean verifierDisponibiliteSalle(Salle salle, LocalDateTime debut, LocalDateTime fin) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try {
             // Check conflicts with APPROVED reservations only
-            List<Reservation> conflitsSalle = session.createQuery(
-                            "FROM Reservation WHERE salle = :salle AND statut = :statut AND " +
-                                    "((:debut < dateFin AND :fin > dateDebut))", Reservation.class)
-                    .setParameter("salle", salle)
-                    .setParameter("statut", Reservation.StatutReservation.APPROUVEE)
-                    .setParameter("debut", debut)
-                    .setParameter("fin", fin)
-                    .list();
-
-            if (!conflitsSalle.isEmpty()) {
+            if (reservationService.hasApprovedConflict(salle, debut, fin, null)) {
                 showErrorMessage("Cette salle est déjà réservée (approuvée) pour ce créneau.");
                 return false;
             }
@@ -262,6 +300,7 @@ public class ReservationController {
     }
 
     private void clearForm() {
+        salleComboBox.getItems().setAll(sallesDisponibles);
         salleComboBox.setValue(null);
         datePicker.setValue(null);
         heureDebutField.clear();
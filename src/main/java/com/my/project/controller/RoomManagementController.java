@@ -2,6 +2,7 @@ package com.my.project.controller;
 
 import com.my.project.model.Equipement;
 import com.my.project.model.Salle;
+import com.my.project.service.EquipementIndex;
 import com.my.project.util.HibernateUtil;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -145,6 +146,7 @@ public class RoomManagementController implements Initializable {
                     Transaction tx = session.beginTransaction();
                     session.persist(salle);
                     tx.commit();
+                    EquipementIndex.getInstance().invalidate();
                     chargerSalles();
                     showSuccessAlert("Succès", "Salle ajoutée avec succès !");
                 } catch (Exception e) {
@@ -170,6 +172,7 @@ public class RoomManagementController implements Initializable {
                     Transaction tx = session.beginTransaction();
                     session.merge(updatedSalle);
                     tx.commit();
+                    EquipementIndex.getInstance().invalidate();
                     chargerSalles();
                     showSuccessAlert("Succès", "Salle modifiée avec succès !");
                 } catch (Exception e) {
@@ -200,6 +203,7 @@ public class RoomManagementController implements Initializable {
                 attached.getEquipements().clear(); // dissocier les équipements
                 session.remove(attached);
                 tx.commit();
+                EquipementIndex.getInstance().invalidate();
                 chargerSalles();
                 showSuccessAlert("Succès", "Salle supprimée avec succès !");
             } catch (Exception e) {
@@ -221,6 +225,7 @@ public class RoomManagementController implements Initializable {
             Transaction tx = session.beginTransaction();
             session.merge(salle);
             tx.commit();
+            EquipementIndex.getInstance().invalidate();
             chargerSalles();
             String status = salle.isDisponible() ? "activée" : "désactivée";
             showSuccessAlert("Succès", "Salle " + status + " avec succès !");
@@ -238,7 +243,9 @@ public class RoomManagementController implements Initializable {
         }
 
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            List<Equipement> tous = session.createQuery("FROM Equipement", Equipement.class).list();
+            List<Equipement> tous = session.createQuery("FROM Equipement", Equipement.class)
+                    .setCacheable(true)
+                    .list();
 
             if (tous.isEmpty()) {
                 showWarningAlert("Aucun équipement", "Aucun équipement disponible dans le système.");
@@ -278,6 +285,7 @@ public class RoomManagementController implements Initializable {
                 Transaction tx = session.beginTransaction();
                 session.merge(salle);
                 tx.commit();
+                EquipementIndex.getInstance().invalidate();
                 chargerSalles();
                 showSuccessAlert("Succès", "Équipements associés avec succès !");
             }
@@ -1,8 +1,8 @@
 package com.my.project.controller;
 
 import com.my.project.model.Equipement;
-import com.my.project.model.Reservation;
 import com.my.project.model.Salle;
+import com.my.project.service.SuggestionService;
 import com.my.project.util.HibernateUtil;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -12,7 +12,7 @@ import org.hibernate.Session;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.*;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class SuggestionController {
@@ -24,10 +24,16 @@ public class SuggestionController {
     @FXML private ListView<String> equipementList;
     @FXML private TextArea resultArea;
 
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private final SuggestionService suggestionService = new SuggestionService();
+
     @FXML
     public void initialize() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            List<Equipement> eqList = session.createQuery("FROM Equipement", Equipement.class).list();
+            List<Equipement> eqList = session.createQuery("FROM Equipement", Equipement.class)
+                    .setCacheable(true)
+                    .list();
             equipementList.setItems(FXCollections.observableArrayList(
                     eqList.stream().map(Equipement::getNom).toList()));
             equipementList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
@@ -56,58 +62,23 @@ public class SuggestionController {
             capacite = Integer.parseInt(capaciteField.getText());
             List<String> equipementsSouhaites = equipementList.getSelectionModel().getSelectedItems();
 
-            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-                List<Salle> salles = session.createQuery("FROM Salle WHERE disponible = true AND capacite >= :cap", Salle.class)
-                        .setParameter("cap", capacite)
-                        .list();
-
-                List<Salle> filtrées = new ArrayList<>();
-                for (Salle s : salles) {
-                    boolean okEquip = equipementsSouhaites.stream()
-                            .allMatch(eq -> s.getEquipements().stream().map(Equipement::getNom).toList().contains(eq));
-
-                    boolean dispo = session.createQuery(
-                                    "FROM Reservation WHERE salle = :salle AND " +
-                                            "((:start BETWEEN dateDebut AND dateFin) OR " +
-                                            "(:end BETWEEN dateDebut AND dateFin) OR " +
-                                            "(:start < dateDebut AND :end > dateFin))", Reservation.class)
-                            .setParameter("salle", s)
-                            .setParameter("start", debut)
-                            .setParameter("end", fin)
-                            .list().isEmpty();
-
-                    if (okEquip && dispo) filtrées.add(s);
-                }
-
-                if (!filtrées.isEmpty()) {
-                    resultArea.setText("Salles disponibles :\n" + filtrées.stream().map(Salle::getNom).collect(Collectors.joining("\n")));
-                } else {
-                    resultArea.setText("Aucune salle disponible pour ce créneau.\nSuggestions alternatives :\n");
-                    for (Salle s : salles) {
-                        boolean okEquip = equipementsSouhaites.stream()
-                                .allMatch(eq -> s.getEquipements().stream().map(Equipement::getNom).toList().contains(eq));
-                        if (!okEquip) continue;
-
-                        for (int h = 8; h <= 18; h++) {
-                            LocalDateTime altDeb = date.atTime(h, 0);
-                            LocalDateTime altFin = altDeb.plusHours(2);
-
-                            boolean libre = session.createQuery(
-                                            "FROM Reservation WHERE salle = :salle AND " +
-                                                    "((:start BETWEEN dateDebut AND dateFin) OR " +
-                                                    "(:end BETWEEN dateDebut AND dateFin) OR " +
-                                                    "(:start < dateDebut AND :end > dateFin))", Reservation.class)
-                                    .setParameter("salle", s)
-                                    .setParameter("start", altDeb)
-                                    .setParameter("end", altFin)
-                                    .list().isEmpty();
-
-                            if (libre) {
-                                resultArea.appendText("Salle : " + s.getNom() + " - de " + altDeb.toLocalTime() + " à " + altFin.toLocalTime() + "\n");
-                                break;
-                            }
-                        }
+            // Every salle matching the exact request is listed, alternatives are only ranked when there is none
+            List<Salle> exactes = suggestionService.findAvailable(debut, fin, capacite, equipementsSouhaites);
+            if (!exactes.isEmpty()) {
+                resultArea.setText("Salles disponibles :\n" + exactes.stream()
+                        .map(Salle::getNom)
+                        .collect(Collectors.joining("\n")));
+            } else {
+                List<SuggestionService.Suggestion> suggestions =
+                        suggestionService.suggest(debut, fin, capacite, equipementsSouhaites, MAX_SUGGESTIONS);
+                resultArea.setText("Aucune salle disponible pour ce créneau.\nSuggestions alternatives :\n");
+                for (SuggestionService.Suggestion s : suggestions) {
+                    String ligne = "Salle : " + s.getSalle().getNom() + " - de " + s.getDebut().toLocalTime()
+                            + " à " + s.getFin().toLocalTime();
+                    if (!s.getEquipementsManquants().isEmpty()) {
+                        ligne += " (manque : " + String.join(", ", s.getEquipementsManquants()) + ")";
                     }
+                    resultArea.appendText(ligne + "\n");
                 }
             }
         } catch (Exception e) {
@@ -0,0 +1,20 @@
+package com.my.project.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The printed columns of a reservation in every export (PDF, Excel, CSV), read by one
+ * constructor-expression query (see ExportRowRepository) instead of walking entities
+ */
+public record ExportRow(
+        Long id,
+        String utilisateurNom,
+        String utilisateurEmail,
+        String salleNom,
+        String salleType,
+        LocalDateTime dateDebut,
+        LocalDateTime dateFin,
+        Reservation.StatutReservation statut,
+        String description,
+        LocalDateTime dateCreation) {
+}
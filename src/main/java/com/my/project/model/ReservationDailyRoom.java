@@ -0,0 +1,61 @@
+package com.my.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Rollup of the reservations starting on a day in a salle (maintained by ReservationRollups)
+ */
+@Entity
+@Table(name = "reservation_daily_room")
+@IdClass(ReservationDailyRoom.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationDailyRoom {
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "salle_id")
+    private Long salleId;
+
+    @Column(name = "reservation_count")
+    private int reservationCount;
+
+    @Column(name = "minutes")
+    private long minutes;
+
+    @Column(name = "pending_count")
+    private int pendingCount;
+
+    @Column(name = "approved_count")
+    private int approvedCount;
+
+    @Column(name = "rejected_count")
+    private int rejectedCount;
+
+    @Column(name = "cancelled_count")
+    private int cancelledCount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate day;
+        private Long salleId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.my.project.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Utilisateurs with a reservation starting on a day: exact count and HyperLogLog sketch
+ * of their ids, so windows are a union of sketches (maintained by ReservationRollups)
+ */
+@Entity
+@Table(name = "reservation_daily_users")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationDailyUsers {
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "user_count")
+    private int userCount;
+
+    @Lob
+    @Column(name = "users_sketch")
+    private byte[] usersSketch;
+}
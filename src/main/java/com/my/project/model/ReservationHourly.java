@@ -0,0 +1,46 @@
+package com.my.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Rollup of the reservations starting on a day in a given hour (maintained by ReservationRollups)
+ */
+@Entity
+@Table(name = "reservation_hourly")
+@IdClass(ReservationHourly.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationHourly {
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "hour")
+    private int hour;
+
+    @Column(name = "reservation_count")
+    private int reservationCount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate day;
+        private int hour;
+    }
+}
@@ -0,0 +1,32 @@
+package com.my.project.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup buckets a reservation was last counted in, so a change can refresh the buckets it leaves
+ */
+@Entity
+@Table(name = "reservation_rollup_entry")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationRollupEntry {
+
+    @Id
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "hour")
+    private int hour;
+
+    @Column(name = "salle_id")
+    private Long salleId;
+}
@@ -0,0 +1,86 @@
+package com.my.project.repository;
+
+import com.my.project.service.ReservationRollups;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grouped reservation counts for the analytics screen, read from the daily rollup
+ * tables (see ReservationRollups). Summing is done by the database, so every method
+ * returns one small row per group (day, hour, weekday or salle type) whatever the
+ * number of reservations. Windows are the days [from, to); failures propagate to the
+ * caller. Per salle and utilisateur figures come from ReservationFactStore.
+ */
+public class AnalyticsQueryRepository {
+
+    /**
+     * Get reservations per start day, days without reservation omitted
+     */
+    public Map<LocalDate, Integer> countByDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> result = new HashMap<>();
+        for (Object[] row : grouped("b.day", "ReservationHourly b", from, to)) {
+            result.put((LocalDate) row[0], toInt(row[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Get reservations per start hour (0-23)
+     */
+    public int[] countByHour(LocalDate from, LocalDate to) {
+        int[] result = new int[24];
+        for (Object[] row : grouped("b.hour", "ReservationHourly b", from, to)) {
+            result[((Number) row[0]).intValue()] = toInt(row[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Get reservations per start weekday, Monday first
+     */
+    public int[] countByWeekday(LocalDate from, LocalDate to) {
+        int[] result = new int[7];
+        for (Object[] row : grouped("extract(day of week from b.day)", "ReservationHourly b", from, to)) {
+            // HQL day of week is 1 = Sunday ... 7 = Saturday
+            result[(((Number) row[0]).intValue() + 5) % 7] = toInt(row[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Get reservations per salle type, null types reported as "Non spécifié"
+     */
+    public Map<String, Integer> countBySalleType(LocalDate from, LocalDate to) {
+        Map<String, Integer> result = new HashMap<>();
+        for (Object[] row : grouped("s.type", "ReservationDailyRoom b LEFT JOIN Salle s ON s.id = b.salleId",
+                from, to)) {
+            result.merge(row[0] != null ? (String) row[0] : "Non spécifié", toInt(row[1]), Integer::sum);
+        }
+        return result;
+    }
+
+    /** Sum the reservation counts of a rollup table, aliased b, per key over the days [from, to) */
+    private List<Object[]> grouped(String key, String rollup, LocalDate from, LocalDate to) {
+        ReservationRollups.getInstance().awaitRefreshes();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT " + key + ", SUM(b.reservationCount) FROM " + rollup + " " +
+                            "WHERE b.day >= :from AND b.day < :to " +
+                            "GROUP BY " + key,
+                    Object[].class);
+            query.setParameter("from", from);
+            query.setParameter("to", to);
+            return query.list();
+        }
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+}
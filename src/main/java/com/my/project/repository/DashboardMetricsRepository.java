@@ -0,0 +1,106 @@
+package com.my.project.repository;
+
+import com.my.project.model.Reservation;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Headline counters of the dashboards. Every counter comes from a single statement:
+ * conditional aggregation (SUM(CASE ...)) over Reservation in one pass, with scalar
+ * subqueries doing the same over Salle and Utilisateur.
+ */
+public class DashboardMetricsRepository {
+
+    private static final String METRICS_QUERY =
+            "SELECT " +
+                    "COALESCE(SUM(CASE WHEN r.dateFin >= :now THEN 1 ELSE 0 END), 0), " +
+                    "COALESCE(SUM(CASE WHEN r.dateDebut >= :dayStart AND r.dateDebut < :dayEnd THEN 1 ELSE 0 END), 0), " +
+                    "COALESCE(SUM(CASE WHEN r.statut = :pending THEN 1 ELSE 0 END), 0), " +
+                    "(SELECT COUNT(s) FROM Salle s), " +
+                    "(SELECT COALESCE(SUM(CASE WHEN s.disponible = true THEN 1 ELSE 0 END), 0) FROM Salle s), " +
+                    "(SELECT COALESCE(AVG(s.capacite), 0) FROM Salle s), " +
+                    "(SELECT COUNT(u) FROM Utilisateur u), " +
+                    "(SELECT COALESCE(SUM(CASE WHEN u.role = 'admin' THEN 1 ELSE 0 END), 0) FROM Utilisateur u), " +
+                    "(SELECT COALESCE(SUM(CASE WHEN u.role = 'professeur' THEN 1 ELSE 0 END), 0) FROM Utilisateur u), " +
+                    "(SELECT COALESCE(SUM(CASE WHEN u.role = 'etudiant' THEN 1 ELSE 0 END), 0) FROM Utilisateur u) " +
+                    "FROM Reservation r";
+
+    /**
+     * Get all dashboard counters in one round trip
+     */
+    public DashboardMetrics fetch() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+
+            Query<Object[]> query = session.createQuery(METRICS_QUERY, Object[].class);
+            query.setParameter("now", now);
+            query.setParameter("dayStart", dayStart);
+            query.setParameter("dayEnd", dayStart.plusDays(1));
+            query.setParameter("pending", Reservation.StatutReservation.EN_ATTENTE);
+
+            Object[] row = query.uniqueResult();
+            return new DashboardMetrics(
+                    toInt(row[0]), toInt(row[1]), toInt(row[2]),
+                    toInt(row[3]), toInt(row[4]), ((Number) row[5]).doubleValue(),
+                    toInt(row[6]), toInt(row[7]), toInt(row[8]), toInt(row[9]));
+        } catch (Exception e) {
+            System.err.println("Error getting dashboard metrics: " + e.getMessage());
+            return DashboardMetrics.empty();
+        }
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    /**
+     * Inner class for dashboard counters
+     */
+    public static class DashboardMetrics {
+        private final int activeReservations;
+        private final int todayReservations;
+        private final int pendingRequests;
+        private final int totalRooms;
+        private final int availableRooms;
+        private final double averageCapacity;
+        private final int totalUsers;
+        private final int admins;
+        private final int professors;
+        private final int students;
+
+        public DashboardMetrics(int activeReservations, int todayReservations, int pendingRequests,
+                                int totalRooms, int availableRooms, double averageCapacity,
+                                int totalUsers, int admins, int professors, int students) {
+            this.activeReservations = activeReservations;
+            this.todayReservations = todayReservations;
+            this.pendingRequests = pendingRequests;
+            this.totalRooms = totalRooms;
+            this.availableRooms = availableRooms;
+            this.averageCapacity = averageCapacity;
+            this.totalUsers = totalUsers;
+            this.admins = admins;
+            this.professors = professors;
+            this.students = students;
+        }
+
+        static DashboardMetrics empty() {
+            return new DashboardMetrics(0, 0, 0, 0, 0, 0.0, 0, 0, 0, 0);
+        }
+
+        public int getActiveReservations() { return activeReservations; }
+        public int getTodayReservations() { return todayReservations; }
+        public int getPendingRequests() { return pendingRequests; }
+        public int getTotalRooms() { return totalRooms; }
+        public int getAvailableRooms() { return availableRooms; }
+        public double getAverageCapacity() { return averageCapacity; }
+        public int getTotalUsers() { return totalUsers; }
+        public int getAdmins() { return admins; }
+        public int getProfessors() { return professors; }
+        public int getStudents() { return students; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.my.project.repository;
+
+import com.my.project.model.ExportRow;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reservations as export rows: one constructor-expression query joining salle and
+ * utilisateur returns only the printed columns, so exports neither load entities nor
+ * fire a select per association, and rows stay usable once the session is closed.
+ */
+public class ExportRowRepository {
+
+    private static final String SELECT_ROWS =
+            "SELECT new com.my.project.model.ExportRow(" +
+                    "r.id, u.nom, u.email, s.nom, s.type, r.dateDebut, r.dateFin, r.statut, " +
+                    "r.description, r.dateCreation) " +
+                    "FROM Reservation r LEFT JOIN r.utilisateur u LEFT JOIN r.salle s ";
+
+    /** Rows fetched per round trip while streaming */
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * Stream every reservation in id order, or only those of one utilisateur if the id is
+     * not null, from a forward-only cursor. The stream must be closed (try-with-resources).
+     */
+    public Stream<ExportRow> stream(Long utilisateurId) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Query<ExportRow> query = session.createQuery(SELECT_ROWS +
+                    (utilisateurId != null ? "WHERE u.id = :utilisateurId " : "") + "ORDER BY r.id", ExportRow.class);
+            if (utilisateurId != null) {
+                query.setParameter("utilisateurId", utilisateurId);
+            }
+            query.setReadOnly(true);
+            query.setFetchSize(FETCH_SIZE);
+            ScrollableResults<ExportRow> results = query.scroll(ScrollMode.FORWARD_ONLY);
+
+            Spliterator<ExportRow> spliterator = new Spliterators.AbstractSpliterator<ExportRow>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super ExportRow> action) {
+                    if (!results.next()) return false;
+                    action.accept(results.get());
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                results.close();
+                session.close();
+            });
+        } catch (Exception e) {
+            session.close();
+            throw new RuntimeException("Error streaming export rows", e);
+        }
+    }
+
+    /**
+     * Get the next reservations to start, of one utilisateur if the id is not null
+     */
+    public List<ExportRow> findUpcoming(Long utilisateurId, int limit) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<ExportRow> query = session.createQuery(SELECT_ROWS + "WHERE r.dateDebut > :now " +
+                    (utilisateurId != null ? "AND u.id = :utilisateurId " : "") + "ORDER BY r.dateDebut ASC", ExportRow.class);
+            query.setParameter("now", LocalDateTime.now());
+            if (utilisateurId != null) {
+                query.setParameter("utilisateurId", utilisateurId);
+            }
+            query.setMaxResults(limit);
+            return query.list();
+        } catch (Exception e) {
+            System.err.println("Error getting upcoming export rows: " + e.getMessage());
+            return List.of();
+        }
+    }
+}
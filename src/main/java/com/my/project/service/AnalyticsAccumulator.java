@@ -0,0 +1,145 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Counters of the reservations of one window, updated together in primitive arrays:
+ * count, minutes, statuts, distinct utilisateurs, and count and minutes per salle and
+ * per utilisateur. Salles and utilisateurs are dictionary indexes (see
+ * ReservationFactStore), resolved to their ids once the window is accumulated. Two
+ * accumulators of the same window can be merged.
+ */
+public class AnalyticsAccumulator {
+
+    private final int[] statutCounts = new int[Reservation.StatutReservation.values().length];
+    private final BitSet users = new BitSet();
+
+    private int count;
+    private long minutes;
+    private int[] salleCounts = new int[0];
+    private long[] salleMinutes = new long[0];
+    private int[] userCounts = new int[0];
+    private long[] userMinutes = new long[0];
+    private long[] salleIds = new long[0];
+    private long[] userIds = new long[0];
+
+    /**
+     * Add `reservations` reservations of the same salle, utilisateur and statut lasting
+     * `duration` minutes in all; salle, user and statut are -1 when unknown
+     */
+    void add(int reservations, long duration, int salle, int user, byte statut) {
+        count += reservations;
+        minutes += duration;
+        if (statut >= 0) {
+            statutCounts[statut] += reservations;
+        }
+
+        if (salle >= 0) {
+            if (salle >= salleCounts.length) {
+                salleCounts = Arrays.copyOf(salleCounts, Math.max(salle + 1, salleCounts.length * 2));
+                salleMinutes = Arrays.copyOf(salleMinutes, salleCounts.length);
+            }
+            salleCounts[salle] += reservations;
+            salleMinutes[salle] += duration;
+        }
+        if (user >= 0) {
+            if (user >= userCounts.length) {
+                userCounts = Arrays.copyOf(userCounts, Math.max(user + 1, userCounts.length * 2));
+                userMinutes = Arrays.copyOf(userMinutes, userCounts.length);
+            }
+            userCounts[user] += reservations;
+            userMinutes[user] += duration;
+            users.set(user);
+        }
+    }
+
+    /**
+     * Add the counters of another accumulator of the same window
+     */
+    public void merge(AnalyticsAccumulator other) {
+        count += other.count;
+        minutes += other.minutes;
+        addAll(statutCounts, other.statutCounts);
+        users.or(other.users);
+
+        if (other.salleCounts.length > salleCounts.length) {
+            salleCounts = Arrays.copyOf(salleCounts, other.salleCounts.length);
+            salleMinutes = Arrays.copyOf(salleMinutes, other.salleCounts.length);
+        }
+        for (int i = 0; i < other.salleCounts.length; i++) {
+            salleCounts[i] += other.salleCounts[i];
+            salleMinutes[i] += other.salleMinutes[i];
+        }
+        if (other.userCounts.length > userCounts.length) {
+            userCounts = Arrays.copyOf(userCounts, other.userCounts.length);
+            userMinutes = Arrays.copyOf(userMinutes, other.userCounts.length);
+        }
+        for (int i = 0; i < other.userCounts.length; i++) {
+            userCounts[i] += other.userCounts[i];
+            userMinutes[i] += other.userMinutes[i];
+        }
+    }
+
+    /**
+     * Record the ids of the counted salle and utilisateur indexes, while the dictionaries
+     * they come from are still the current ones
+     */
+    void resolveIds(List<Long> salleDictionary, List<Long> userDictionary) {
+        salleIds = new long[salleCounts.length];
+        for (int i = 0; i < salleIds.length; i++) {
+            salleIds[i] = salleCounts[i] > 0 ? salleDictionary.get(i) : 0;
+        }
+        userIds = new long[userCounts.length];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = userCounts[i] > 0 ? userDictionary.get(i) : 0;
+        }
+    }
+
+    private static void addAll(int[] target, int[] source) {
+        for (int i = 0; i < target.length && i < source.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    public int getCount() { return count; }
+    public long getMinutes() { return minutes; }
+    public int getStatutCount(Reservation.StatutReservation statut) { return statutCounts[statut.ordinal()]; }
+    public int getDistinctUsers() { return users.cardinality(); }
+
+    public int getSalleCount(int salle) { return salle < salleCounts.length ? salleCounts[salle] : 0; }
+    public long getSalleMinutes(int salle) { return salle < salleMinutes.length ? salleMinutes[salle] : 0; }
+    public int getUserCount(int user) { return user < userCounts.length ? userCounts[user] : 0; }
+    public long getUserMinutes(int user) { return user < userMinutes.length ? userMinutes[user] : 0; }
+    public Long getSalleId(int salle) { return salleIds[salle]; }
+    public Long getUserId(int user) { return userIds[user]; }
+
+    /**
+     * Get the salle indexes with the most reservations, best first (ties by index)
+     */
+    public List<Integer> topSalles(int limit) {
+        return top(salleCounts, limit);
+    }
+
+    /**
+     * Get the utilisateur indexes with the most reservations, best first (ties by index)
+     */
+    public List<Integer> topUsers(int limit) {
+        return top(userCounts, limit);
+    }
+
+    private static List<Integer> top(int[] counts, int limit) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                indexes.add(i);
+            }
+        }
+        indexes.sort((a, b) -> counts[a] != counts[b] ? Integer.compare(counts[b], counts[a]) : Integer.compare(a, b));
+        return indexes.subList(0, Math.min(limit, indexes.size()));
+    }
+}
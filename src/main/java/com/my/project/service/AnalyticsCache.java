@@ -0,0 +1,246 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computed AnalyticsData per period, kept for TTL_MINUTES. A committed reservation only
+ * evicts the entries whose window (the period and the previous one used for the trends)
+ * holds its old or new start. The standard 7/30/90/365-day windows are recomputed in the
+ * background so the analytics screen opens from the cache, once every listener (the fact
+ * store included) has applied the change.
+ */
+public class AnalyticsCache implements ReservationChangeListener {
+
+    private static final AnalyticsCache INSTANCE = new AnalyticsCache();
+
+    private static final long TTL_MINUTES = 5;
+
+    /** Periods of the analytics screen precomputed in the background */
+    private static final int[] STANDARD_PERIODS = {7, 30, 90, 365};
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    /** Bumped on every eviction so a computation racing a change is not stored */
+    private final AtomicLong generation = new AtomicLong();
+    private final AnalyticsService analyticsService = new AnalyticsService();
+    /** Start held by the fact store before each change being fanned out */
+    private final Map<Long, LocalDateTime> previousStarts = new ConcurrentHashMap<>();
+    private final ReservationChangeListener refresher = new Refresher();
+    private ScheduledExecutorService scheduler;
+
+    private AnalyticsCache() {
+    }
+
+    public static AnalyticsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the analytics of the last `days` days, computed on a miss
+     */
+    public AnalyticsService.AnalyticsData get(int days) {
+        Key key = new Key(LocalDate.now(), days);
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired()) {
+            return entry.getData();
+        }
+        return compute(key);
+    }
+
+    /**
+     * Compute the standard windows in the background, then keep them fresh every TTL
+     */
+    public synchronized void precompute() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshStandardPeriods, 0, TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Listener to register after the fact store: evicts the same windows again once the store
+     * holds the change, so nothing computed in between is kept, then refreshes the standard periods
+     */
+    public ReservationChangeListener refresher() {
+        return refresher;
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    @Override
+    public void reservationCommitted(Reservation reservation) {
+        evict(reservation);
+    }
+
+    @Override
+    public void reservationDeleted(Reservation reservation) {
+        evict(reservation);
+    }
+
+    /**
+     * Evict the windows holding the reservation's previous or current start. Runs before the
+     * fact store applies the change, so the store still holds the previous start.
+     */
+    private void evict(Reservation reservation) {
+        ReservationFactStore store = ReservationFactStore.getInstance();
+        if (!store.isLoaded()) {
+            invalidateAll();
+        } else {
+            LocalDateTime previous = store.getStart(reservation.getId());
+            if (previous != null) {
+                previousStarts.put(reservation.getId(), previous);
+            }
+            invalidate(previous);
+            invalidate(reservation.getDateDebut());
+        }
+    }
+
+    /**
+     * Evict again once the fact store has applied the change, then refresh the standard periods
+     */
+    private void changeApplied(Reservation reservation) {
+        LocalDateTime previous = previousStarts.remove(reservation.getId());
+        if (!ReservationFactStore.getInstance().isLoaded()) {
+            invalidateAll();
+        } else {
+            invalidate(previous);
+            invalidate(reservation.getDateDebut());
+        }
+        scheduleRefresh();
+    }
+
+    /**
+     * Compute and store an entry. A failed computation (e.g. the fact store cannot be loaded)
+     * returns empty analytics without storing them, so the next call tries again.
+     */
+    private AnalyticsService.AnalyticsData compute(Key key) {
+        long before = generation.get();
+        AnalyticsService.AnalyticsData data;
+        try {
+            data = analyticsService.computeAnalyticsData(key.getDays());
+        } catch (Exception e) {
+            System.err.println("Error getting analytics data: " + e.getMessage());
+            return analyticsService.getEmptyAnalyticsData();
+        }
+        if (generation.get() == before) {
+            entries.put(key, new Entry(data, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(TTL_MINUTES)));
+        }
+        return data;
+    }
+
+    /** Evict the entries whose windows hold a start */
+    private void invalidate(LocalDateTime start) {
+        if (start == null) return;
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> key.covers(start));
+    }
+
+    private synchronized void scheduleRefresh() {
+        if (scheduler != null) {
+            scheduler.execute(this::refreshStandardPeriods);
+        }
+    }
+
+    private void refreshStandardPeriods() {
+        try {
+            LocalDate today = LocalDate.now();
+            // Entries of previous days can no longer be hit
+            entries.keySet().removeIf(key -> !key.getToday().equals(today));
+            for (int days : STANDARD_PERIODS) {
+                Key key = new Key(today, days);
+                Entry entry = entries.get(key);
+                if (entry == null || entry.expiresWithin(TimeUnit.MINUTES.toMillis(1))) {
+                    compute(key);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error precomputing analytics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inner class for the listener notified after the fact store
+     */
+    private class Refresher implements ReservationChangeListener {
+        @Override
+        public void reservationCommitted(Reservation reservation) {
+            changeApplied(reservation);
+        }
+
+        @Override
+        public void reservationDeleted(Reservation reservation) {
+            changeApplied(reservation);
+        }
+    }
+
+    /**
+     * Inner class for cache keys: the last `days` days up to `today`
+     */
+    private static class Key {
+        private final LocalDate today;
+        private final int days;
+
+        Key(LocalDate today, int days) {
+            this.today = today;
+            this.days = days;
+        }
+
+        LocalDate getToday() { return today; }
+        int getDays() { return days; }
+
+        /** The period and the previous one compared in the trends */
+        boolean covers(LocalDateTime start) {
+            LocalDateTime from = today.minusDays(2L * days - 1).atStartOfDay();
+            LocalDateTime to = today.plusDays(1).atStartOfDay();
+            return !start.isBefore(from) && start.isBefore(to);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return days == key.days && today.equals(key.today);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(today, days);
+        }
+    }
+
+    /**
+     * Inner class for cached analytics with their expiry time
+     */
+    private static class Entry {
+        private final AnalyticsService.AnalyticsData data;
+        private final long expiresAt;
+
+        Entry(AnalyticsService.AnalyticsData data, long expiresAt) {
+            this.data = data;
+            this.expiresAt = expiresAt;
+        }
+
+        AnalyticsService.AnalyticsData getData() { return data; }
+        boolean isExpired() { return System.currentTimeMillis() >= expiresAt; }
+        boolean expiresWithin(long millis) { return System.currentTimeMillis() + millis >= expiresAt; }
+    }
+}
@@ -1,15 +1,15 @@
 package com.my.project.service;
 
 import com.my.project.model.Reservation;
-import com.my.project.model.Utilisateur;
-import com.my.project.model.Salle;
+import com.my.project.repository.AnalyticsQueryRepository;
 import com.my.project.util.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,247 +19,228 @@ public class AnalyticsService {
     private final UserService userService;
     private final SalleService salleService;
     private final EquipementService equipementService;
+    private final DistributionService distributionService;
+    private final AnalyticsQueryRepository analyticsRepository;
 
     public AnalyticsService() {
         this.reservationService = new ReservationService();
         this.userService = new UserService();
         this.salleService = new SalleService();
         this.equipementService = new EquipementService();
+        this.distributionService = new DistributionService();
+        this.analyticsRepository = new AnalyticsQueryRepository();
     }
 
     /**
      * Get comprehensive analytics data for specified period
      */
     public AnalyticsData getAnalyticsData(int days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        LocalDateTime endDate = LocalDateTime.now();
+        try {
+            return computeAnalyticsData(days);
+        } catch (Exception e) {
+            System.err.println("Error getting analytics data: " + e.getMessage());
+            return getEmptyAnalyticsData();
+        }
+    }
+
+    /**
+     * Compute the analytics data for specified period; failures propagate
+     */
+    AnalyticsData computeAnalyticsData(int days) {
+        // The last `days` days, today included
+        LocalDate startDay = LocalDate.now().minusDays(days - 1L);
+        LocalDateTime startDate = startDay.atStartOfDay();
+        LocalDateTime endDate = LocalDate.now().plusDays(1).atStartOfDay();
 
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Get reservations for the period
-            List<Reservation> reservations = getReservationsForPeriod(session, startDate, endDate);
+            // Counts, durations and per user/salle totals are a scan over the columnar store
+            ReservationFactStore store = ReservationFactStore.getInstance();
+            AnalyticsAccumulator current = store.aggregate(startDate, endDate);
+            AnalyticsAccumulator previous = store.aggregate(startDate.minusDays(days), startDate);
+            Map<Long, Object[]> salles = getSalles(session);
+
+            // Day, hour, weekday and salle type groupings are read from the daily rollups
+            LocalDate endDay = endDate.toLocalDate();
+            Map<LocalDate, Integer> dayCounts = analyticsRepository.countByDay(startDay, endDay);
+            int[] hourCounts = analyticsRepository.countByHour(startDay, endDay);
+            int[] weekdayCounts = analyticsRepository.countByWeekday(startDay, endDay);
+
+            // Occupied minutes within opening hours, overlapping reservations counted once
+            OccupancyEngine occupancyEngine = OccupancyEngine.getInstance();
+            OccupancyEngine.OccupancyReport occupancy = occupancyEngine.compute(startDate, endDate);
+            OccupancyEngine.OccupancyReport previousOccupancy =
+                    occupancyEngine.compute(startDate.minusDays(days), startDate);
+
+            List<UserAnalyticData> topUsers = getTopUsers(session, current);
+            List<RoomAnalyticData> popularRooms = getPopularRooms(current, salles, occupancy);
 
             // Calculate key metrics
-            int totalReservations = reservations.size();
-            double avgDuration = calculateAverageDuration(reservations);
-            double occupancyRate = calculateOccupancyRate(reservations);
-            String topUser = getTopUser(reservations);
-            int topUserCount = getTopUserReservationCount(reservations);
+            int totalReservations = current.getCount();
+            double avgDuration = calculateAverageDuration(current);
+            double occupancyRate = occupancy.getGlobalRate();
+            String topUser = topUsers.isEmpty() ? "Aucun" : topUsers.get(0).getName();
+            int topUserCount = topUsers.isEmpty() ? 0 : topUsers.get(0).getReservationCount();
 
             // Calculate trends (comparing with previous period)
-            String reservationsTrend = calculateReservationsTrend(session, startDate, days);
-            String durationTrend = calculateDurationTrend(session, startDate, days);
-            String occupancyTrend = calculateOccupancyTrend(session, startDate, days);
+            String reservationsTrend = calculateReservationsTrend(current, previous);
+            String durationTrend = calculateDurationTrend(current, previous);
+            String occupancyTrend = calculateOccupancyTrend(occupancy, previousOccupancy);
 
             // Get chart data
-            Map<String, Integer> reservationsOverTime = getReservationsOverTime(reservations, days);
-            Map<String, Integer> roomUsageStats = getRoomUsageStats(reservations);
-            Map<String, Integer> peakHoursStats = getPeakHoursStats(reservations);
+            Map<String, Integer> reservationsOverTime = getReservationsOverTime(dayCounts, startDay, days);
+            Map<String, Integer> roomUsageStats = analyticsRepository.countBySalleType(startDay, endDay);
+            Map<String, Double> roomTypeOccupancy = occupancy.getTypeRates();
+            Map<String, Integer> peakHoursStats = getPeakHoursStats(hourCounts);
             Map<String, Integer> equipmentStats = getEquipmentStats(session);
 
-            // Get top users and rooms
-            List<UserAnalyticData> topUsers = getTopUsers(reservations);
-            List<RoomAnalyticData> popularRooms = getPopularRooms(reservations);
-
             // Get summary statistics
-            int confirmedReservations = totalReservations; // Assuming all are confirmed for now
-            int cancelledReservations = getCancelledReservations(session, startDate, endDate);
+            int cancelledReservations = current.getStatutCount(Reservation.StatutReservation.ANNULEE);
+            int confirmedReservations = totalReservations - cancelledReservations;
             double confirmationRate = calculateConfirmationRate(confirmedReservations, cancelledReservations);
 
-            String peakHour = getPeakHour(reservations);
-            String busiestDay = getBusiestDay(reservations);
-            int totalDuration = calculateTotalDuration(reservations);
+            int peak = indexOfMax(hourCounts);
+            String peakHour = peak >= 0 ? peak + "h-" + (peak + 1) + "h" : "N/A";
+            int busiest = indexOfMax(weekdayCounts);
+            String busiestDay = busiest >= 0 ? translateDayOfWeek(DayOfWeek.of(busiest + 1).toString()) : "N/A";
+            int totalDuration = (int) (current.getMinutes() / 60);
 
-            String mostUsedRoom = getMostUsedRoom(reservations);
+            String mostUsedRoom = popularRooms.isEmpty() ? "Aucune" : popularRooms.get(0).getName();
             String mostRequestedEquipment = equipementService.getMostRequestedEquipment();
-            double avgCapacityUsed = calculateAverageCapacityUsed(reservations);
+            double avgCapacityUsed = calculateAverageCapacityUsed(totalReservations);
 
-            int activeUsers = getActiveUsersCount(session, startDate, endDate);
+            int activeUsers = current.getDistinctUsers();
             int newUsers = getNewUsersCount(session, startDate, endDate);
-            double avgReservationsPerUser = calculateAvgReservationsPerUser(reservations);
+            double avgReservationsPerUser = activeUsers > 0 ? (double) totalReservations / activeUsers : 0.0;
+
+            // Lead time, duration and approval delay percentiles from one pass of histograms
+            DistributionService.Distributions distributions =
+                    distributionService.getDistributions(startDate, endDate);
 
             return new AnalyticsData(
                     totalReservations, reservationsTrend, avgDuration, durationTrend,
                     occupancyRate, occupancyTrend, topUser, topUserCount,
-                    reservationsOverTime, roomUsageStats, peakHoursStats, equipmentStats,
+                    reservationsOverTime, roomUsageStats, roomTypeOccupancy, peakHoursStats, equipmentStats,
                     topUsers, popularRooms,
                     confirmedReservations, cancelledReservations, confirmationRate,
                     peakHour, busiestDay, totalDuration,
                     mostUsedRoom, mostRequestedEquipment, avgCapacityUsed,
-                    activeUsers, newUsers, avgReservationsPerUser
+                    activeUsers, newUsers, avgReservationsPerUser,
+                    new PercentileData(distributions.getLeadTime().getOverall()),
+                    new PercentileData(distributions.getDuration().getOverall()),
+                    new PercentileData(distributions.getApprovalDelay().getOverall())
             );
-
-        } catch (Exception e) {
-            System.err.println("Error getting analytics data: " + e.getMessage());
-            return getEmptyAnalyticsData();
         }
     }
 
-    private List<Reservation> getReservationsForPeriod(Session session, LocalDateTime start, LocalDateTime end) {
-        Query<Reservation> query = session.createQuery(
-                "FROM Reservation r WHERE r.dateDebut >= :start AND r.dateDebut <= :end ORDER BY r.dateDebut",
-                Reservation.class);
-        query.setParameter("start", start);
-        query.setParameter("end", end);
-        return query.list();
+    /** Salle id -> {nom, type}; the catalogue is small and query-cached */
+    private Map<Long, Object[]> getSalles(Session session) {
+        Map<Long, Object[]> salles = new HashMap<>();
+        Query<Object[]> query = session.createQuery("SELECT s.id, s.nom, s.type FROM Salle s", Object[].class);
+        query.setCacheable(true);
+        for (Object[] row : query.list()) {
+            salles.put((Long) row[0], new Object[]{row[1], row[2] != null ? row[2] : "Non spécifié"});
+        }
+        return salles;
     }
 
-    private double calculateAverageDuration(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return 0.0;
-
-        return reservations.stream()
-                .mapToLong(r -> ChronoUnit.HOURS.between(r.getDateDebut(), r.getDateFin()))
-                .average()
-                .orElse(0.0);
+    private double calculateAverageDuration(AnalyticsAccumulator accumulator) {
+        return accumulator.getCount() > 0 ? accumulator.getMinutes() / 60.0 / accumulator.getCount() : 0.0;
     }
 
-    private double calculateOccupancyRate(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return 0.0;
-
-        // Calculate total reserved hours vs total available hours
-        long totalReservedHours = reservations.stream()
-                .mapToLong(r -> ChronoUnit.HOURS.between(r.getDateDebut(), r.getDateFin()))
-                .sum();
+    private String calculateReservationsTrend(AnalyticsAccumulator current, AnalyticsAccumulator previous) {
+        if (previous.getCount() == 0) return "Nouveau";
 
-        // Assuming 8 hours per day available time for each room
-        int totalRooms = salleService.getTotalRoomsCount();
-        long totalAvailableHours = totalRooms * 8L * (reservations.size() > 0 ?
-                ChronoUnit.DAYS.between(
-                        reservations.get(0).getDateDebut().toLocalDate(),
-                        reservations.get(reservations.size()-1).getDateDebut().toLocalDate()
-                ) + 1 : 1);
-
-        return totalAvailableHours > 0 ? (double) totalReservedHours / totalAvailableHours * 100 : 0.0;
+        double percentChange = ((double) current.getCount() - previous.getCount()) / previous.getCount() * 100;
+        return String.format("%+.0f%% vs période précédente", percentChange);
     }
 
-    private String getTopUser(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return "Aucun";
+    private String calculateDurationTrend(AnalyticsAccumulator current, AnalyticsAccumulator previous) {
+        double previousAvg = calculateAverageDuration(previous);
+        if (previousAvg == 0) return "Nouveau";
 
-        return reservations.stream()
-                .collect(Collectors.groupingBy(r -> r.getUtilisateur().getNom(), Collectors.counting()))
-                .entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("Aucun");
+        double change = calculateAverageDuration(current) - previousAvg;
+        return String.format("%+.1fh vs période précédente", change);
     }
 
-    private int getTopUserReservationCount(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return 0;
-
-        return reservations.stream()
-                .collect(Collectors.groupingBy(r -> r.getUtilisateur().getNom(), Collectors.counting()))
-                .values().stream()
-                .mapToInt(Long::intValue)
-                .max()
-                .orElse(0);
+    private String calculateOccupancyTrend(OccupancyEngine.OccupancyReport current,
+                                           OccupancyEngine.OccupancyReport previous) {
+        double change = current.getGlobalRate() - previous.getGlobalRate();
+        return String.format("%+.1f%% vs période précédente", change);
     }
 
-    private String calculateReservationsTrend(Session session, LocalDateTime currentStart, int days) {
-        try {
-            LocalDateTime previousStart = currentStart.minusDays(days);
-            LocalDateTime previousEnd = currentStart;
-
-            Query<Long> query = session.createQuery(
-                    "SELECT COUNT(r) FROM Reservation r WHERE r.dateDebut >= :start AND r.dateDebut < :end",
-                    Long.class);
-            query.setParameter("start", previousStart);
-            query.setParameter("end", previousEnd);
-
-            long previousCount = query.uniqueResult();
-            long currentCount = getReservationsForPeriod(session, currentStart, LocalDateTime.now()).size();
-
-            if (previousCount == 0) return "Nouveau";
-
-            double percentChange = ((double) currentCount - previousCount) / previousCount * 100;
-            return String.format("%+.0f%% vs période précédente", percentChange);
-        } catch (Exception e) {
-            return "N/A";
+    /**
+     * Get the index holding the highest count (the first one on ties), or -1 if all are zero
+     */
+    private static int indexOfMax(int[] counts) {
+        int best = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 && (best < 0 || counts[i] > counts[best])) {
+                best = i;
+            }
         }
+        return best;
     }
 
-    private String calculateDurationTrend(Session session, LocalDateTime currentStart, int days) {
-        try {
-            LocalDateTime previousStart = currentStart.minusDays(days);
-            LocalDateTime previousEnd = currentStart;
-
-            List<Reservation> previousReservations = getReservationsForPeriod(session, previousStart, previousEnd);
-            List<Reservation> currentReservations = getReservationsForPeriod(session, currentStart, LocalDateTime.now());
-
-            double previousAvg = calculateAverageDuration(previousReservations);
-            double currentAvg = calculateAverageDuration(currentReservations);
-
-            if (previousAvg == 0) return "Nouveau";
-
-            double change = currentAvg - previousAvg;
-            return String.format("%+.1fh vs période précédente", change);
-        } catch (Exception e) {
-            return "N/A";
+    private Map<String, Integer> getReservationsOverTime(Map<LocalDate, Integer> dayCounts, LocalDate start, int days) {
+        // Days without reservation are kept with 0
+        Map<String, Integer> result = new LinkedHashMap<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
+        for (int i = 0; i < days; i++) {
+            LocalDate day = start.plusDays(i);
+            result.put(day.format(formatter), dayCounts.getOrDefault(day, 0));
         }
+        return result;
     }
 
-    private String calculateOccupancyTrend(Session session, LocalDateTime currentStart, int days) {
-        try {
-            LocalDateTime previousStart = currentStart.minusDays(days);
-            LocalDateTime previousEnd = currentStart;
-
-            List<Reservation> previousReservations = getReservationsForPeriod(session, previousStart, previousEnd);
-            List<Reservation> currentReservations = getReservationsForPeriod(session, currentStart, LocalDateTime.now());
-
-            double previousRate = calculateOccupancyRate(previousReservations);
-            double currentRate = calculateOccupancyRate(currentReservations);
-
-            double change = currentRate - previousRate;
-            return String.format("%+.1f%% vs période précédente", change);
-        } catch (Exception e) {
-            return "N/A";
+    private Map<String, Integer> getPeakHoursStats(int[] hourCounts) {
+        Map<String, Integer> result = new TreeMap<>();
+        for (int hour = 0; hour < 24; hour++) {
+            if (hourCounts[hour] > 0) {
+                result.put(hour + "h-" + (hour + 1) + "h", hourCounts[hour]);
+            }
         }
+        return result;
     }
 
-    private Map<String, Integer> getReservationsOverTime(List<Reservation> reservations, int days) {
-        Map<String, Integer> result = new LinkedHashMap<>();
-        DateTimeFormatter formatter = days <= 7 ?
-                DateTimeFormatter.ofPattern("dd/MM") :
-                DateTimeFormatter.ofPattern("dd/MM");
-
-        // Group reservations by date
-        Map<String, Long> reservationsByDate = reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getDateDebut().format(formatter),
-                        Collectors.counting()
-                ));
-
-        // Fill in missing dates with 0
-        LocalDateTime start = LocalDateTime.now().minusDays(days);
-        for (int i = 0; i < days; i++) {
-            String dateStr = start.plusDays(i).format(formatter);
-            result.put(dateStr, reservationsByDate.getOrDefault(dateStr, 0L).intValue());
+    private List<UserAnalyticData> getTopUsers(Session session, AnalyticsAccumulator accumulator) {
+        List<Integer> top = accumulator.topUsers(10);
+        if (top.isEmpty()) return new ArrayList<>();
+
+        List<Long> ids = new ArrayList<>();
+        for (int user : top) {
+            ids.add(accumulator.getUserId(user));
+        }
+        Map<Long, Object[]> names = new HashMap<>();
+        Query<Object[]> query = session.createQuery(
+                "SELECT u.id, u.nom, u.role FROM Utilisateur u WHERE u.id IN (:ids)", Object[].class);
+        query.setParameter("ids", ids);
+        for (Object[] row : query.list()) {
+            names.put((Long) row[0], row);
         }
 
+        List<UserAnalyticData> result = new ArrayList<>();
+        for (int i = 0; i < top.size(); i++) {
+            Object[] user = names.get(ids.get(i));
+            if (user == null) continue;
+            result.add(new UserAnalyticData((String) user[1], accumulator.getUserCount(top.get(i)),
+                    (int) (accumulator.getUserMinutes(top.get(i)) / 60), (String) user[2]));
+        }
         return result;
     }
 
-    private Map<String, Integer> getRoomUsageStats(List<Reservation> reservations) {
-        return reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getSalle().getType() != null ? r.getSalle().getType() : "Non spécifié",
-                        Collectors.counting()
-                ))
-                .entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> e.getValue().intValue()
-                ));
-    }
-
-    private Map<String, Integer> getPeakHoursStats(List<Reservation> reservations) {
-        Map<String, Integer> hourCounts = new TreeMap<>();
-
-        for (Reservation r : reservations) {
-            int hour = r.getDateDebut().getHour();
-            String hourRange = hour + "h-" + (hour + 1) + "h";
-            hourCounts.merge(hourRange, 1, Integer::sum);
+    private List<RoomAnalyticData> getPopularRooms(AnalyticsAccumulator accumulator, Map<Long, Object[]> salles,
+                                                   OccupancyEngine.OccupancyReport occupancy) {
+        List<RoomAnalyticData> result = new ArrayList<>();
+        for (int salle : accumulator.topSalles(Integer.MAX_VALUE)) {
+            Long salleId = accumulator.getSalleId(salle);
+            Object[] info = salles.get(salleId);
+            if (info == null) continue;
+            double occupancyRate = occupancy.getRoomRate(salleId);
+            result.add(new RoomAnalyticData((String) info[0], accumulator.getSalleCount(salle),
+                    (int) occupancyRate, (String) info[1]));
+            if (result.size() == 10) break;
         }
-
-        return hourCounts;
+        return result;
     }
 
     private Map<String, Integer> getEquipmentStats(Session session) {
@@ -283,151 +264,25 @@ public class AnalyticsService {
         }
     }
 
-    private List<UserAnalyticData> getTopUsers(List<Reservation> reservations) {
-        return reservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getUtilisateur))
-                .entrySet().stream()
-                .map(entry -> {
-                    Utilisateur user = entry.getKey();
-                    List<Reservation> userReservations = entry.getValue();
-                    int count = userReservations.size();
-                    long totalHours = userReservations.stream()
-                            .mapToLong(r -> ChronoUnit.HOURS.between(r.getDateDebut(), r.getDateFin()))
-                            .sum();
-
-                    return new UserAnalyticData(user.getNom(), count, (int) totalHours, user.getRole());
-                })
-                .sorted((a, b) -> Integer.compare(b.getReservationCount(), a.getReservationCount()))
-                .limit(10)
-                .collect(Collectors.toList());
-    }
-
-    private List<RoomAnalyticData> getPopularRooms(List<Reservation> reservations) {
-        Map<Salle, List<Reservation>> roomReservations = reservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getSalle));
-
-        return roomReservations.entrySet().stream()
-                .map(entry -> {
-                    Salle room = entry.getKey();
-                    List<Reservation> roomRes = entry.getValue();
-                    int count = roomRes.size();
-
-                    // Calculate occupancy rate for this room
-                    long totalHours = roomRes.stream()
-                            .mapToLong(r -> ChronoUnit.HOURS.between(r.getDateDebut(), r.getDateFin()))
-                            .sum();
-
-                    // Assuming 8 hours per day available
-                    long availableHours = 8L * 30; // Approximate for last month
-                    double occupancyRate = availableHours > 0 ? (double) totalHours / availableHours * 100 : 0;
-
-                    return new RoomAnalyticData(room.getNom(), count, (int) occupancyRate,
-                            room.getType() != null ? room.getType() : "Non spécifié");
-                })
-                .sorted((a, b) -> Integer.compare(b.getReservationCount(), a.getReservationCount()))
-                .limit(10)
-                .collect(Collectors.toList());
-    }
-
-    private int getCancelledReservations(Session session, LocalDateTime start, LocalDateTime end) {
-        // Since we don't have a status field, return 0 for now
-        // You can add a status field to Reservation entity later
-        return 0;
-    }
-
     private double calculateConfirmationRate(int confirmed, int cancelled) {
         int total = confirmed + cancelled;
         return total > 0 ? (double) confirmed / total * 100 : 100;
     }
 
-    private String getPeakHour(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return "N/A";
-
-        Map<Integer, Long> hourCounts = reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getDateDebut().getHour(),
-                        Collectors.counting()
-                ));
-
-        int peakHour = hourCounts.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(0);
-
-        return peakHour + "h-" + (peakHour + 1) + "h";
-    }
-
-    private String getBusiestDay(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return "N/A";
-
-        Map<String, Long> dayCounts = reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getDateDebut().getDayOfWeek().toString(),
-                        Collectors.counting()
-                ));
-
-        return dayCounts.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(entry -> translateDayOfWeek(entry.getKey()))
-                .orElse("N/A");
-    }
-
-    private int calculateTotalDuration(List<Reservation> reservations) {
-        return (int) reservations.stream()
-                .mapToLong(r -> ChronoUnit.HOURS.between(r.getDateDebut(), r.getDateFin()))
-                .sum();
-    }
-
-    private String getMostUsedRoom(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return "Aucune";
-
-        return reservations.stream()
-                .collect(Collectors.groupingBy(r -> r.getSalle().getNom(), Collectors.counting()))
-                .entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("Aucune");
-    }
-
-    private double calculateAverageCapacityUsed(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return 0.0;
+    private double calculateAverageCapacityUsed(int totalReservations) {
+        if (totalReservations == 0) return 0.0;
 
         // This would require knowing how many people attended each reservation
         // For now, return a mock percentage
         return 65.0;
     }
 
-    private int getActiveUsersCount(Session session, LocalDateTime start, LocalDateTime end) {
-        try {
-            Query<Long> query = session.createQuery(
-                    "SELECT COUNT(DISTINCT r.utilisateur) FROM Reservation r " +
-                            "WHERE r.dateDebut >= :start AND r.dateDebut <= :end",
-                    Long.class);
-            query.setParameter("start", start);
-            query.setParameter("end", end);
-            return Math.toIntExact(query.uniqueResult());
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
     private int getNewUsersCount(Session session, LocalDateTime start, LocalDateTime end) {
         // This would require a creation date field in User entity
         // For now, return a mock value
         return 8;
     }
 
-    private double calculateAvgReservationsPerUser(List<Reservation> reservations) {
-        if (reservations.isEmpty()) return 0.0;
-
-        long uniqueUsers = reservations.stream()
-                .map(Reservation::getUtilisateur)
-                .distinct()
-                .count();
-
-        return uniqueUsers > 0 ? (double) reservations.size() / uniqueUsers : 0.0;
-    }
-
     private String translateDayOfWeek(String dayOfWeek) {
         switch (dayOfWeek) {
             case "MONDAY": return "Lundi";
@@ -441,13 +296,15 @@ public class AnalyticsService {
         }
     }
 
-    private AnalyticsData getEmptyAnalyticsData() {
+    AnalyticsData getEmptyAnalyticsData() {
         return new AnalyticsData(
                 0, "N/A", 0.0, "N/A", 0.0, "N/A", "Aucun", 0,
-                new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(),
+                new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(),
                 new ArrayList<>(), new ArrayList<>(),
                 0, 0, 0.0, "N/A", "N/A", 0,
-                "Aucune", "Aucun", 0.0, 0, 0, 0.0
+                "Aucune", "Aucun", 0.0, 0, 0, 0.0,
+                new PercentileData(new MinuteHistogram()), new PercentileData(new MinuteHistogram()),
+                new PercentileData(new MinuteHistogram())
         );
     }
 
@@ -489,6 +346,7 @@ public class AnalyticsService {
 
         private final Map<String, Integer> reservationsOverTime;
         private final Map<String, Integer> roomUsageStats;
+        private final Map<String, Double> roomTypeOccupancy;
         private final Map<String, Integer> peakHoursStats;
         private final Map<String, Integer> equipmentStats;
 
@@ -508,16 +366,22 @@ public class AnalyticsService {
         private final int newUsers;
         private final double avgReservationsPerUser;
 
+        private final PercentileData leadTimePercentiles;
+        private final PercentileData durationPercentiles;
+        private final PercentileData approvalDelayPercentiles;
+
         public AnalyticsData(int totalReservations, String reservationsTrend, double averageDuration,
                              String durationTrend, double occupancyRate, String occupancyTrend,
                              String topUser, int topUserCount,
                              Map<String, Integer> reservationsOverTime, Map<String, Integer> roomUsageStats,
-                             Map<String, Integer> peakHoursStats, Map<String, Integer> equipmentStats,
+                             Map<String, Double> roomTypeOccupancy, Map<String, Integer> peakHoursStats, Map<String, Integer> equipmentStats,
                              List<UserAnalyticData> topUsers, List<RoomAnalyticData> popularRooms,
                              int confirmedReservations, int cancelledReservations, double confirmationRate,
                              String peakHour, String busiestDay, int totalDuration,
                              String mostUsedRoom, String mostRequestedEquipment, double avgCapacityUsed,
-                             int activeUsers, int newUsers, double avgReservationsPerUser) {
+                             int activeUsers, int newUsers, double avgReservationsPerUser,
+                             PercentileData leadTimePercentiles, PercentileData durationPercentiles,
+                             PercentileData approvalDelayPercentiles) {
             this.totalReservations = totalReservations;
             this.reservationsTrend = reservationsTrend;
             this.averageDuration = averageDuration;
@@ -528,6 +392,7 @@ public class AnalyticsService {
             this.topUserCount = topUserCount;
             this.reservationsOverTime = reservationsOverTime;
             this.roomUsageStats = roomUsageStats;
+            this.roomTypeOccupancy = roomTypeOccupancy;
             this.peakHoursStats = peakHoursStats;
             this.equipmentStats = equipmentStats;
             this.topUsers = topUsers;
@@ -544,6 +409,9 @@ public class AnalyticsService {
             this.activeUsers = activeUsers;
             this.newUsers = newUsers;
             this.avgReservationsPerUser = avgReservationsPerUser;
+            this.leadTimePercentiles = leadTimePercentiles;
+            this.durationPercentiles = durationPercentiles;
+            this.approvalDelayPercentiles = approvalDelayPercentiles;
         }
 
         // Getters
@@ -557,6 +425,7 @@ public class AnalyticsService {
         public int getTopUserCount() { return topUserCount; }
         public Map<String, Integer> getReservationsOverTime() { return reservationsOverTime; }
         public Map<String, Integer> getRoomUsageStats() { return roomUsageStats; }
+        public Map<String, Double> getRoomTypeOccupancy() { return roomTypeOccupancy; }
         public Map<String, Integer> getPeakHoursStats() { return peakHoursStats; }
         public Map<String, Integer> getEquipmentStats() { return equipmentStats; }
         public List<UserAnalyticData> getTopUsers() { return topUsers; }
@@ -573,6 +442,9 @@ public class AnalyticsService {
         public int getActiveUsers() { return activeUsers; }
         public int getNewUsers() { return newUsers; }
         public double getAvgReservationsPerUser() { return avgReservationsPerUser; }
+        public PercentileData getLeadTimePercentiles() { return leadTimePercentiles; }
+        public PercentileData getDurationPercentiles() { return durationPercentiles; }
+        public PercentileData getApprovalDelayPercentiles() { return approvalDelayPercentiles; }
     }
 
     public static class UserAnalyticData {
@@ -612,4 +484,26 @@ public class AnalyticsService {
         public int getOccupancyRate() { return occupancyRate; }
         public String getType() { return type; }
     }
+
+    /**
+     * Inner class for the percentiles of a distribution, in minutes
+     */
+    public static class PercentileData {
+        private final long count;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+
+        public PercentileData(MinuteHistogram histogram) {
+            this.count = histogram.getCount();
+            this.p50 = histogram.getValueAtPercentile(50);
+            this.p90 = histogram.getValueAtPercentile(90);
+            this.p99 = histogram.getValueAtPercentile(99);
+        }
+
+        public long getCount() { return count; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+    }
 }
\ No newline at end of file
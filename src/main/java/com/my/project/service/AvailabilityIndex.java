@@ -0,0 +1,314 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of the APPROUVEE and EN_ATTENTE reservations of every salle.
+ * Each (salle, statut) pair keeps its intervals sorted by start with a running
+ * maximum of the end, so overlap checks are a binary search instead of a DB query.
+ * Only reservations ending today or later are loaded. Checks reaching before that
+ * horizon, or made while the index cannot be loaded, are answered by the database
+ * so that a failure never reads as "no conflict". The index is per process: writes re-check
+ * in their own transaction (ReservationService.hasApprovedConflict(Session, ...)).
+ */
+public class AvailabilityIndex implements ReservationChangeListener {
+
+    private static final AvailabilityIndex INSTANCE = new AvailabilityIndex();
+
+    private Map<Long, EnumMap<Reservation.StatutReservation, IntervalSet>> bySalle = new HashMap<>();
+    private Map<Long, IndexedReservation> byReservation = new HashMap<>();
+    private LocalDateTime horizon = LocalDateTime.MAX;
+    private boolean loaded;
+
+    private AvailabilityIndex() {
+    }
+
+    public static AvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check whether a status takes part in conflict detection
+     */
+    public static boolean isIndexed(Reservation.StatutReservation statut) {
+        return statut == Reservation.StatutReservation.APPROUVEE
+                || statut == Reservation.StatutReservation.EN_ATTENTE;
+    }
+
+    /**
+     * (Re)load the index from the reservations ending today or later. The previous
+     * intervals are only replaced once the query has succeeded; on failure the index
+     * stays unloaded and checks fall back to the database until a later load succeeds.
+     */
+    public synchronized void load() {
+        loaded = false;
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.id, r.salle.id, r.dateDebut, r.dateFin, r.statut FROM Reservation r " +
+                            "WHERE r.statut IN (:statuts) AND r.salle IS NOT NULL AND r.dateFin >= :today",
+                    Object[].class);
+            query.setParameter("statuts", List.of(
+                    Reservation.StatutReservation.APPROUVEE, Reservation.StatutReservation.EN_ATTENTE));
+            query.setParameter("today", today);
+            List<Object[]> rows = query.list();
+
+            bySalle = new HashMap<>();
+            byReservation = new HashMap<>();
+            for (Object[] row : rows) {
+                add((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3],
+                        (Reservation.StatutReservation) row[4]);
+            }
+            horizon = today;
+            loaded = true;
+        } catch (Exception e) {
+            System.err.println("Error loading availability index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Insert or refresh a reservation after it has been committed
+     */
+    public synchronized void index(Reservation reservation) {
+        if (reservation == null || reservation.getId() == null) return;
+        ensureLoaded();
+        if (!loaded) return;
+        removeInternal(reservation.getId());
+        if (reservation.getSalle() != null && isIndexed(reservation.getStatut())) {
+            add(reservation.getId(), reservation.getSalle().getId(), reservation.getDateDebut(),
+                    reservation.getDateFin(), reservation.getStatut());
+        }
+    }
+
+    /**
+     * Drop a reservation after it has been deleted
+     */
+    public synchronized void remove(Long reservationId) {
+        if (reservationId == null) return;
+        ensureLoaded();
+        if (!loaded) return;
+        removeInternal(reservationId);
+    }
+
+    @Override
+    public void reservationCommitted(Reservation reservation) {
+        index(reservation);
+    }
+
+    @Override
+    public void reservationDeleted(Reservation reservation) {
+        remove(reservation.getId());
+    }
+
+    /**
+     * Check if any reservation with one of the given statuses overlaps [debut, fin) in the salle
+     */
+    public synchronized boolean hasConflict(Long salleId, LocalDateTime debut, LocalDateTime fin, Long excludeId,
+                                            Reservation.StatutReservation... statuts) {
+        ensureLoaded();
+        if (!loaded || debut.isBefore(horizon)) {
+            return !findConflictsInDatabase(salleId, debut, fin, excludeId, statuts).isEmpty();
+        }
+        EnumMap<Reservation.StatutReservation, IntervalSet> sets = bySalle.get(salleId);
+        if (sets == null) return false;
+
+        long start = toKey(debut);
+        long end = toKey(fin);
+        for (Reservation.StatutReservation statut : statuts) {
+            IntervalSet set = sets.get(statut);
+            if (set != null && set.overlaps(start, end, excludeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get ids of reservations with one of the given statuses overlapping [debut, fin) in the salle
+     */
+    public synchronized List<Long> findConflicts(Long salleId, LocalDateTime debut, LocalDateTime fin, Long excludeId,
+                                                 Reservation.StatutReservation... statuts) {
+        ensureLoaded();
+        if (!loaded || debut.isBefore(horizon)) {
+            return findConflictsInDatabase(salleId, debut, fin, excludeId, statuts);
+        }
+        List<Long> conflicts = new ArrayList<>();
+        EnumMap<Reservation.StatutReservation, IntervalSet> sets = bySalle.get(salleId);
+        if (sets == null) return conflicts;
+
+        long start = toKey(debut);
+        long end = toKey(fin);
+        for (Reservation.StatutReservation statut : statuts) {
+            IntervalSet set = sets.get(statut);
+            if (set != null) {
+                set.collectOverlaps(start, end, excludeId, conflicts);
+            }
+        }
+        return conflicts;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Answer a check from the database while the index is not loaded, or for a period
+     * starting before its horizon. Errors propagate, so callers refuse the slot instead
+     * of treating it as free.
+     */
+    private List<Long> findConflictsInDatabase(Long salleId, LocalDateTime debut, LocalDateTime fin, Long excludeId,
+                                               Reservation.StatutReservation... statuts) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Long> query = session.createQuery(
+                    "SELECT r.id FROM Reservation r WHERE r.salle.id = :salleId AND r.statut IN (:statuts) " +
+                            "AND r.dateDebut < :fin AND r.dateFin > :debut",
+                    Long.class);
+            query.setParameter("salleId", salleId);
+            query.setParameter("statuts", List.of(statuts));
+            query.setParameter("debut", debut);
+            query.setParameter("fin", fin);
+            List<Long> conflicts = new ArrayList<>(query.list());
+            conflicts.remove(excludeId);
+            return conflicts;
+        }
+    }
+
+    private void add(Long id, Long salleId, LocalDateTime debut, LocalDateTime fin,
+                     Reservation.StatutReservation statut) {
+        if (id == null || salleId == null || debut == null || fin == null) return;
+        long start = toKey(debut);
+        long end = toKey(fin);
+        bySalle.computeIfAbsent(salleId, k -> new EnumMap<>(Reservation.StatutReservation.class))
+                .computeIfAbsent(statut, k -> new IntervalSet())
+                .insert(start, end, id);
+        byReservation.put(id, new IndexedReservation(salleId, statut, start));
+    }
+
+    private void removeInternal(Long id) {
+        IndexedReservation previous = byReservation.remove(id);
+        if (previous == null) return;
+        EnumMap<Reservation.StatutReservation, IntervalSet> sets = bySalle.get(previous.salleId);
+        if (sets != null && sets.containsKey(previous.statut)) {
+            sets.get(previous.statut).delete(previous.start, id);
+        }
+    }
+
+    private static long toKey(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static class IndexedReservation {
+        final Long salleId;
+        final Reservation.StatutReservation statut;
+        final long start;
+
+        IndexedReservation(Long salleId, Reservation.StatutReservation statut, long start) {
+            this.salleId = salleId;
+            this.statut = statut;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Intervals sorted by start, with maxEnd[i] = max(ends[0..i]) so that the
+     * existence of an overlap is decided by a single binary search.
+     */
+    static class IntervalSet {
+        private long[] starts = new long[8];
+        private long[] ends = new long[8];
+        private long[] ids = new long[8];
+        private long[] maxEnd = new long[8];
+        private int size;
+
+        void insert(long start, long end, long id) {
+            if (size == starts.length) {
+                int capacity = size * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                maxEnd = Arrays.copyOf(maxEnd, capacity);
+            }
+            int pos = countStartsBefore(start + 1);
+            System.arraycopy(starts, pos, starts, pos + 1, size - pos);
+            System.arraycopy(ends, pos, ends, pos + 1, size - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            starts[pos] = start;
+            ends[pos] = end;
+            ids[pos] = id;
+            size++;
+            recomputeMaxEnd(pos);
+        }
+
+        void delete(long start, long id) {
+            for (int i = countStartsBefore(start); i < size && starts[i] == start; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                    System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    recomputeMaxEnd(i);
+                    return;
+                }
+            }
+        }
+
+        boolean overlaps(long start, long end, Long excludeId) {
+            int i = countStartsBefore(end) - 1;
+            if (excludeId == null) {
+                return i >= 0 && maxEnd[i] > start;
+            }
+            for (; i >= 0 && maxEnd[i] > start; i--) {
+                if (ends[i] > start && ids[i] != excludeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void collectOverlaps(long start, long end, Long excludeId, List<Long> out) {
+            for (int i = countStartsBefore(end) - 1; i >= 0 && maxEnd[i] > start; i--) {
+                if (ends[i] > start && (excludeId == null || ids[i] != excludeId)) {
+                    out.add(ids[i]);
+                }
+            }
+        }
+
+        /** Number of intervals whose start is strictly before the given key */
+        private int countStartsBefore(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void recomputeMaxEnd(int from) {
+            long max = from > 0 ? maxEnd[from - 1] : Long.MIN_VALUE;
+            for (int i = from; i < size; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package com.my.project.service;
 
 import com.my.project.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class BaseService<T> {
 
+    /** Default page size for keyset pagination */
+    public static final int PAGE_SIZE = 500;
+
+    /** Rows written between flush/clear in bulk operations, matches jdbc.batch_size in hibernate.cfg.xml */
+    private static final int BATCH_SIZE = 50;
+
+    /** Rows fetched per round trip and kept in the session while streaming */
+    private static final int STREAM_FETCH_SIZE = 200;
+
     protected final Class<T> entityClass;
 
     public BaseService(Class<T> entityClass) {
@@ -22,6 +39,7 @@ public abstract class BaseService<T> {
             transaction = session.beginTransaction();
             session.save(entity);
             transaction.commit();
+            afterSave(entity);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -36,6 +54,7 @@ public abstract class BaseService<T> {
             transaction = session.beginTransaction();
             session.update(entity);
             transaction.commit();
+            afterUpdate(entity);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -50,6 +69,7 @@ public abstract class BaseService<T> {
             transaction = session.beginTransaction();
             session.delete(entity);
             transaction.commit();
+            afterDelete(entity);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -58,6 +78,33 @@ public abstract class BaseService<T> {
         }
     }
 
+    /**
+     * Save all entities in a single transaction, in JDBC batches
+     */
+    public void saveAll(Collection<T> entities) {
+        if (entities.isEmpty()) return;
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            int count = 0;
+            for (T entity : entities) {
+                session.persist(entity);
+                // Send the batch and keep the persistence context small
+                if (++count % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+            entities.forEach(this::afterSave);
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error saving entities", e);
+        }
+    }
+
     public Optional<T> findById(Long id) {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             T entity = session.get(entityClass, id);
@@ -76,6 +123,87 @@ public abstract class BaseService<T> {
         }
     }
 
+    /**
+     * Get the next page of entities ordered by id, starting after afterId (null for the first page).
+     * Keyset pagination: the cost of a page does not grow with its position in the table.
+     */
+    public List<T> findPage(Long afterId, int limit, SortOrder sort) {
+        String entityName = entityClass.getSimpleName();
+        String where = afterId != null ? " WHERE e.id " + (sort == SortOrder.DESC ? "<" : ">") + " :afterId" : "";
+        String orderBy = " ORDER BY e.id " + sort.name();
+
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            if (collectionFetchJoins().isEmpty()) {
+                Query<T> query = session.createQuery(
+                        "SELECT e FROM " + entityName + " e " + fetchJoins() + where + orderBy, entityClass);
+                if (afterId != null) query.setParameter("afterId", afterId);
+                query.setMaxResults(limit);
+                return query.list();
+            }
+
+            // A fetched collection multiplies rows: page on ids first, then load those entities
+            Query<Long> idQuery = session.createQuery("SELECT e.id FROM " + entityName + " e" + where + orderBy, Long.class);
+            if (afterId != null) idQuery.setParameter("afterId", afterId);
+            idQuery.setMaxResults(limit);
+            List<Long> ids = idQuery.list();
+            if (ids.isEmpty()) return List.of();
+
+            Query<T> query = session.createQuery(
+                    "SELECT DISTINCT e FROM " + entityName + " e " + fetchJoins() + " " + collectionFetchJoins() +
+                            " WHERE e.id IN (:ids)" + orderBy, entityClass);
+            query.setParameter("ids", ids);
+            return query.list();
+        } catch (Exception e) {
+            throw new RuntimeException("Error finding page of entities", e);
+        }
+    }
+
+    /**
+     * Pass every entity, in id order, to the action without holding the table in memory
+     */
+    public void stream(Consumer<T> action) {
+        try (Stream<T> entities = stream()) {
+            entities.forEach(action);
+        }
+    }
+
+    /**
+     * Stream every entity in id order from a forward-only cursor. The session is cleared
+     * every few rows, so the stream must be closed (try-with-resources) to release it.
+     */
+    public Stream<T> stream() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Query<T> query = session.createQuery(
+                    "SELECT e FROM " + entityClass.getSimpleName() + " e " + fetchJoins() + " ORDER BY e.id", entityClass);
+            query.setReadOnly(true);
+            query.setFetchSize(STREAM_FETCH_SIZE);
+            ScrollableResults<T> results = query.scroll(ScrollMode.FORWARD_ONLY);
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                private int count;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!results.next()) return false;
+                    action.accept(results.get());
+                    if (++count % STREAM_FETCH_SIZE == 0) {
+                        session.clear();
+                    }
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                results.close();
+                session.close();
+            });
+        } catch (Exception e) {
+            session.close();
+            throw new RuntimeException("Error streaming entities", e);
+        }
+    }
+
     public long count() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Long> query = session.createQuery("SELECT COUNT(*) FROM " + entityClass.getSimpleName(), Long.class);
@@ -85,7 +213,38 @@ public abstract class BaseService<T> {
         }
     }
 
+    /**
+     * Hooks invoked once a write has been committed, so subclasses can keep
+     * in-memory structures in sync with the database
+     */
+    protected void afterSave(T entity) {
+    }
+
+    protected void afterUpdate(T entity) {
+    }
+
+    protected void afterDelete(T entity) {
+    }
+
+    /**
+     * To-one associations fetched with every row of findPage and stream (e.g. "LEFT JOIN FETCH e.salle")
+     */
+    protected String fetchJoins() {
+        return "";
+    }
+
+    /**
+     * Collections fetched with every entity of findPage (not used when streaming)
+     */
+    protected String collectionFetchJoins() {
+        return "";
+    }
+
     protected Session getCurrentSession() {
         return HibernateUtil.getSessionFactory().getCurrentSession();
     }
-}
\ No newline at end of file
+
+    public enum SortOrder {
+        ASC, DESC
+    }
+}
@@ -1,44 +1,57 @@
 package com.my.project.service;
 
 import com.my.project.model.Utilisateur;
+import com.my.project.repository.DashboardMetricsRepository;
+import com.my.project.util.CacheMetrics;
+import com.my.project.util.HibernateUtil;
+import com.my.project.util.PoolMetrics;
+import com.my.project.util.SharedExecutor;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class DashboardService {
 
-    private final UserService userService;
+    /** Window of the "active users" counter */
+    private static final int ACTIVE_USERS_DAYS = 30;
+
     private final ReservationService reservationService;
     private final SalleService salleService;
     private final EquipementService equipementService;
-    private final ExecutorService executorService;
+    private final DashboardMetricsRepository metricsRepository;
 
     public DashboardService() {
-        this.userService = new UserService();
         this.reservationService = new ReservationService();
         this.salleService = new SalleService();
         this.equipementService = new EquipementService();
-        this.executorService = Executors.newFixedThreadPool(4);
+        this.metricsRepository = new DashboardMetricsRepository();
     }
 
     /**
      * Get all dashboard data asynchronously
      */
     public CompletableFuture<DashboardData> getDashboardDataAsync() {
+        ExecutorService executorService = SharedExecutor.get();
+
+        CompletableFuture<DashboardMetricsRepository.DashboardMetrics> metricsFuture =
+                CompletableFuture.supplyAsync(metricsRepository::fetch, executorService);
+
         CompletableFuture<UserService.UserStats> userStatsFuture =
-                CompletableFuture.supplyAsync(() -> userService.getUserStats(), executorService);
+                metricsFuture.thenApply(DashboardService::toUserStats);
 
-        CompletableFuture<SalleService.RoomStats> roomStatsFuture =
-                CompletableFuture.supplyAsync(() -> salleService.getRoomStats(), executorService);
+        CompletableFuture<SalleService.RoomStats> roomStatsFuture = metricsFuture.thenCombine(
+                CompletableFuture.supplyAsync(salleService::getRoomTypeStats, executorService),
+                DashboardService::toRoomStats);
 
         CompletableFuture<EquipementService.EquipmentStats> equipmentStatsFuture =
                 CompletableFuture.supplyAsync(() -> equipementService.getEquipmentStats(), executorService);
 
         CompletableFuture<ReservationData> reservationDataFuture =
-                CompletableFuture.supplyAsync(this::getReservationData, executorService);
+                metricsFuture.thenApplyAsync(this::getReservationData, executorService);
 
         return CompletableFuture.allOf(userStatsFuture, roomStatsFuture, equipmentStatsFuture, reservationDataFuture)
                 .thenApply(v -> new DashboardData(
@@ -55,10 +68,11 @@ public class DashboardService {
      */
     public DashboardData getDashboardData() {
         try {
-            UserService.UserStats userStats = userService.getUserStats();
-            SalleService.RoomStats roomStats = salleService.getRoomStats();
+            DashboardMetricsRepository.DashboardMetrics metrics = metricsRepository.fetch();
+            UserService.UserStats userStats = toUserStats(metrics);
+            SalleService.RoomStats roomStats = toRoomStats(metrics, salleService.getRoomTypeStats());
             EquipementService.EquipmentStats equipmentStats = equipementService.getEquipmentStats();
-            ReservationData reservationData = getReservationData();
+            ReservationData reservationData = getReservationData(metrics);
 
             return new DashboardData(userStats, roomStats, equipmentStats, reservationData, LocalDateTime.now());
         } catch (Exception e) {
@@ -73,10 +87,14 @@ public class DashboardService {
     public Map<String, Integer> getBasicStats() {
         Map<String, Integer> stats = new HashMap<>();
         try {
-            stats.put("activeUsers", userService.getActiveUsersCount());
-            stats.put("availableRooms", salleService.getAvailableRoomsCount());
-            stats.put("activeReservations", reservationService.getActiveReservationsCount());
-            stats.put("pendingRequests", reservationService.getPendingRequestsCount());
+            DashboardMetricsRepository.DashboardMetrics metrics = metricsRepository.fetch();
+            // Utilisateurs with a reservation in the last 30 days
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+            stats.put("activeUsers",
+                    reservationService.getActiveUsersCount(tomorrow.minusDays(ACTIVE_USERS_DAYS), tomorrow));
+            stats.put("availableRooms", metrics.getAvailableRooms());
+            stats.put("activeReservations", metrics.getActiveReservations());
+            stats.put("pendingRequests", metrics.getPendingRequests());
         } catch (Exception e) {
             System.err.println("Error getting basic stats: " + e.getMessage());
             // Return default values on error
@@ -88,11 +106,37 @@ public class DashboardService {
         return stats;
     }
 
-    private ReservationData getReservationData() {
+    /**
+     * Get connection pool statistics for the admin dashboard
+     */
+    public PoolMetrics.PoolStatistics getPoolStatistics() {
+        return HibernateUtil.getPoolStatistics();
+    }
+
+    /**
+     * Get second-level cache statistics for the admin dashboard
+     */
+    public CacheMetrics.CacheStatistics getCacheStatistics() {
+        return HibernateUtil.getCacheStatistics();
+    }
+
+    private static UserService.UserStats toUserStats(DashboardMetricsRepository.DashboardMetrics metrics) {
+        return new UserService.UserStats(metrics.getTotalUsers(), metrics.getAdmins(),
+                metrics.getProfessors(), metrics.getStudents());
+    }
+
+    /** Room counters come from the metrics row, only the per-type counts need their own query */
+    private static SalleService.RoomStats toRoomStats(DashboardMetricsRepository.DashboardMetrics metrics,
+                                                      List<Object[]> roomTypeStats) {
+        return new SalleService.RoomStats(metrics.getTotalRooms(), metrics.getAvailableRooms(),
+                metrics.getTotalRooms() - metrics.getAvailableRooms(), metrics.getAverageCapacity(), roomTypeStats);
+    }
+
+    private ReservationData getReservationData(DashboardMetricsRepository.DashboardMetrics metrics) {
         try {
-            int activeReservations = reservationService.getActiveReservationsCount();
-            int todayReservations = reservationService.getTodayReservationsCount();
-            int pendingRequests = reservationService.getPendingRequestsCount();
+            int activeReservations = metrics.getActiveReservations();
+            int todayReservations = metrics.getTodayReservations();
+            int pendingRequests = metrics.getPendingRequests();
             double occupancyRate = reservationService.getOccupancyRate();
             Map<String, Integer> monthlyStats = reservationService.getMonthlyStats();
 
@@ -150,13 +194,6 @@ public class DashboardService {
         }
     }
 
-    /**
-     * Shutdown the service
-     */
-    public void shutdown() {
-        executorService.shutdown();
-    }
-
     // Data classes for organizing dashboard information
 
     public static class DashboardData {
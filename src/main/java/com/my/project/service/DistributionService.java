@@ -0,0 +1,120 @@
+package com.my.project.service;
+
+import com.my.project.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Distributions of booking lead time (dateCreation to dateDebut), duration and approval
+ * delay (dateCreation to dateValidation), as histograms per room type and per role,
+ * filled in one streamed pass over the reservations of a window.
+ */
+public class DistributionService {
+
+    /** Rows fetched per round trip */
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * Get the distributions of the reservations starting in [from, to)
+     */
+    public Distributions getDistributions(LocalDateTime from, LocalDateTime to) {
+        Distributions distributions = new Distributions();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.dateCreation, r.dateDebut, r.dateFin, r.dateValidation, s.type, u.role " +
+                            "FROM Reservation r LEFT JOIN r.salle s LEFT JOIN r.utilisateur u " +
+                            "WHERE r.dateDebut >= :from AND r.dateDebut < :to",
+                    Object[].class);
+            query.setParameter("from", from);
+            query.setParameter("to", to);
+            query.setReadOnly(true);
+            query.setFetchSize(FETCH_SIZE);
+
+            try (ScrollableResults<Object[]> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    LocalDateTime creation = (LocalDateTime) row[0];
+                    LocalDateTime debut = (LocalDateTime) row[1];
+                    LocalDateTime fin = (LocalDateTime) row[2];
+                    LocalDateTime validation = (LocalDateTime) row[3];
+                    String type = row[4] != null ? (String) row[4] : "Non spécifié";
+                    String role = row[5] != null ? (String) row[5] : "inconnu";
+
+                    if (creation != null) {
+                        distributions.leadTime.record(minutesBetween(creation, debut), type, role);
+                    }
+                    if (fin != null) {
+                        distributions.duration.record(minutesBetween(debut, fin), type, role);
+                    }
+                    if (creation != null && validation != null) {
+                        distributions.approvalDelay.record(minutesBetween(creation, validation), type, role);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error getting reservation distributions: " + e.getMessage());
+            return new Distributions();
+        }
+        return distributions;
+    }
+
+    private static long minutesBetween(LocalDateTime start, LocalDateTime end) {
+        return Duration.between(start, end).toMinutes();
+    }
+
+    /**
+     * Inner class for the three distributions of a window
+     */
+    public static class Distributions {
+        private final Distribution leadTime = new Distribution();
+        private final Distribution duration = new Distribution();
+        private final Distribution approvalDelay = new Distribution();
+
+        /**
+         * Add the distributions of another window
+         */
+        public void merge(Distributions other) {
+            leadTime.merge(other.leadTime);
+            duration.merge(other.duration);
+            approvalDelay.merge(other.approvalDelay);
+        }
+
+        public Distribution getLeadTime() { return leadTime; }
+        public Distribution getDuration() { return duration; }
+        public Distribution getApprovalDelay() { return approvalDelay; }
+    }
+
+    /**
+     * Inner class for one measure: all reservations, per room type and per role
+     */
+    public static class Distribution {
+        private final MinuteHistogram overall = new MinuteHistogram();
+        private final Map<String, MinuteHistogram> byRoomType = new HashMap<>();
+        private final Map<String, MinuteHistogram> byRole = new HashMap<>();
+
+        void record(long minutes, String roomType, String role) {
+            overall.record(minutes);
+            byRoomType.computeIfAbsent(roomType, k -> new MinuteHistogram()).record(minutes);
+            byRole.computeIfAbsent(role, k -> new MinuteHistogram()).record(minutes);
+        }
+
+        void merge(Distribution other) {
+            overall.merge(other.overall);
+            other.byRoomType.forEach((type, histogram) ->
+                    byRoomType.computeIfAbsent(type, k -> new MinuteHistogram()).merge(histogram));
+            other.byRole.forEach((role, histogram) ->
+                    byRole.computeIfAbsent(role, k -> new MinuteHistogram()).merge(histogram));
+        }
+
+        public MinuteHistogram getOverall() { return overall; }
+        public Map<String, MinuteHistogram> getByRoomType() { return byRoomType; }
+        public Map<String, MinuteHistogram> getByRole() { return byRole; }
+    }
+}
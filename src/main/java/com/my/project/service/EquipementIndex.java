@@ -0,0 +1,170 @@
+package com.my.project.service;
+
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from equipement to the salles holding it. Salles are numbered by
+ * ascending capacity and every equipement keeps a bitset of those positions, so
+ * "salles having A AND B AND C with capacite >= N" is a few bitset ANDs over the
+ * range of positions found by one binary search on the capacities.
+ */
+public class EquipementIndex {
+
+    private static final EquipementIndex INSTANCE = new EquipementIndex();
+
+    private long[] salleIds = new long[0];
+    private int[] capacites = new int[0];
+    private final BitSet disponibles = new BitSet();
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final Map<Long, BitSet> byEquipement = new HashMap<>();
+    private final Map<String, BitSet> byNom = new HashMap<>();
+    private boolean loaded;
+
+    private EquipementIndex() {
+    }
+
+    public static EquipementIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuild the index from the salle and salle_equipement tables
+     */
+    public synchronized void rebuild() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            List<Object[]> salles = session.createQuery(
+                    "SELECT s.id, s.capacite, s.disponible FROM Salle s ORDER BY s.capacite, s.id",
+                    Object[].class).list();
+            List<Object[]> associations = session.createQuery(
+                    "SELECT s.id, e.id, e.nom FROM Salle s JOIN s.equipements e",
+                    Object[].class).list();
+
+            salleIds = new long[salles.size()];
+            capacites = new int[salles.size()];
+            disponibles.clear();
+            positions.clear();
+            byEquipement.clear();
+            byNom.clear();
+
+            for (int i = 0; i < salles.size(); i++) {
+                Object[] row = salles.get(i);
+                salleIds[i] = (Long) row[0];
+                capacites[i] = (Integer) row[1];
+                if ((Boolean) row[2]) {
+                    disponibles.set(i);
+                }
+                positions.put(salleIds[i], i);
+            }
+            for (Object[] row : associations) {
+                Integer position = positions.get((Long) row[0]);
+                if (position == null) continue;
+                byEquipement.computeIfAbsent((Long) row[1], id -> new BitSet(salleIds.length)).set(position);
+                if (row[2] != null) {
+                    byNom.computeIfAbsent((String) row[2], nom -> new BitSet(salleIds.length)).set(position);
+                }
+            }
+            loaded = true;
+        } catch (Exception e) {
+            System.err.println("Error rebuilding equipement index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark the index stale after salles or their equipements changed; it is rebuilt on next use
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Get ids of the salles holding every given equipement with capacite >= minCapacite, by ascending capacity
+     */
+    public synchronized List<Long> findSalleIds(Collection<Long> equipementIds, int minCapacite,
+                                                boolean disponiblesOnly) {
+        ensureLoaded();
+        BitSet matches = candidates(minCapacite, disponiblesOnly);
+        for (Long equipementId : equipementIds) {
+            intersect(matches, byEquipement.get(equipementId));
+        }
+        return toSalleIds(matches);
+    }
+
+    /**
+     * Same as {@link #findSalleIds} with equipements given by name
+     */
+    public synchronized List<Long> findSalleIdsByNoms(Collection<String> noms, int minCapacite,
+                                                      boolean disponiblesOnly) {
+        ensureLoaded();
+        BitSet matches = candidates(minCapacite, disponiblesOnly);
+        for (String nom : noms) {
+            intersect(matches, byNom.get(nom));
+        }
+        return toSalleIds(matches);
+    }
+
+    /**
+     * Get, among the given equipement names, those the salle does not hold
+     */
+    public synchronized List<String> getMissingEquipements(Long salleId, Collection<String> noms) {
+        ensureLoaded();
+        Integer position = positions.get(salleId);
+        List<String> manquants = new ArrayList<>();
+        for (String nom : noms) {
+            BitSet salles = byNom.get(nom);
+            if (position == null || salles == null || !salles.get(position)) {
+                manquants.add(nom);
+            }
+        }
+        return manquants;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    /** Positions with capacite >= minCapacite: a suffix of the capacity-sorted salles */
+    private BitSet candidates(int minCapacite, boolean disponiblesOnly) {
+        int low = 0;
+        int high = capacites.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (capacites[mid] < minCapacite) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        BitSet matches = new BitSet(capacites.length);
+        matches.set(low, capacites.length);
+        if (disponiblesOnly) {
+            matches.and(disponibles);
+        }
+        return matches;
+    }
+
+    private static void intersect(BitSet matches, BitSet salles) {
+        if (salles == null) {
+            matches.clear();
+        } else {
+            matches.and(salles);
+        }
+    }
+
+    private List<Long> toSalleIds(BitSet matches) {
+        List<Long> ids = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            ids.add(salleIds[i]);
+        }
+        return ids;
+    }
+}
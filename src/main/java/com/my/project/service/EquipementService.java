@@ -17,6 +17,21 @@ public class EquipementService extends BaseService<Equipement> {
         super(Equipement.class);
     }
 
+    @Override
+    protected void afterSave(Equipement equipement) {
+        EquipementIndex.getInstance().invalidate();
+    }
+
+    @Override
+    protected void afterUpdate(Equipement equipement) {
+        EquipementIndex.getInstance().invalidate();
+    }
+
+    @Override
+    protected void afterDelete(Equipement equipement) {
+        EquipementIndex.getInstance().invalidate();
+    }
+
     /**
      * Get total equipement count
      */
@@ -94,16 +109,8 @@ public class EquipementService extends BaseService<Equipement> {
      * Get salles that have specific equipement
      */
     public List<Salle> getSallesWithEquipement(Long equipementId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Salle> query = session.createQuery(
-                    "SELECT s FROM Salle s JOIN s.equipements e WHERE e.id = :equipementId",
-                    Salle.class);
-            query.setParameter("equipementId", equipementId);
-            return query.list();
-        } catch (Exception e) {
-            System.err.println("Error getting salles with equipement: " + e.getMessage());
-            return List.of();
-        }
+        List<Long> ids = EquipementIndex.getInstance().findSalleIds(List.of(equipementId), 0, false);
+        return new SalleService().findByIds(ids);
     }
 
     /**
@@ -0,0 +1,339 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Occupancy calendar storing each salle's day as a bitmap of 96 quarter-hour slots
+ * (two longs per salle per day). "Which salles are free between debut and fin" is
+ * answered with one AND per salle and per day instead of a NOT IN subquery.
+ * Approved and pending reservations are kept in separate layers so callers can
+ * choose whether pending requests block a slot. Only reservations ending today or
+ * later are loaded; checks reaching before that horizon, or made while the calendar
+ * is not loaded, are answered by the AvailabilityIndex so a failure never reads as free.
+ */
+public class OccupancyCalendar implements ReservationChangeListener {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final OccupancyCalendar INSTANCE = new OccupancyCalendar();
+
+    private Map<Long, Integer> roomIndex = new HashMap<>();
+    private List<Long> roomIds = new ArrayList<>();
+    private Map<Reservation.StatutReservation, Layer> layers = newLayers();
+    private Map<Long, Placement> placements = new HashMap<>();
+    private LocalDateTime horizon = LocalDateTime.MAX;
+    private boolean loaded;
+
+    private OccupancyCalendar() {
+    }
+
+    public static OccupancyCalendar getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuild every bitmap from the reservations ending today or later. The previous
+     * bitmaps are only replaced once the query has succeeded; on failure the calendar
+     * stays unloaded and checks go through the AvailabilityIndex.
+     */
+    public synchronized void rebuild() {
+        loaded = false;
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.id, r.salle.id, r.dateDebut, r.dateFin, r.statut FROM Reservation r " +
+                            "WHERE r.statut IN (:statuts) AND r.salle IS NOT NULL AND r.dateFin >= :today",
+                    Object[].class);
+            query.setParameter("statuts", List.of(
+                    Reservation.StatutReservation.APPROUVEE, Reservation.StatutReservation.EN_ATTENTE));
+            query.setParameter("today", today);
+            List<Object[]> rows = query.list();
+
+            roomIndex = new HashMap<>();
+            roomIds = new ArrayList<>();
+            layers = newLayers();
+            placements = new HashMap<>();
+            for (Object[] row : rows) {
+                place((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3],
+                        (Reservation.StatutReservation) row[4]);
+            }
+            horizon = today;
+            loaded = true;
+        } catch (Exception e) {
+            System.err.println("Error rebuilding occupancy calendar: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void reservationCommitted(Reservation reservation) {
+        ensureLoaded();
+        if (!loaded) return;
+        unplace(reservation.getId());
+        if (reservation.getSalle() != null && layers.containsKey(reservation.getStatut())) {
+            place(reservation.getId(), reservation.getSalle().getId(),
+                    reservation.getDateDebut(), reservation.getDateFin(), reservation.getStatut());
+        }
+    }
+
+    @Override
+    public synchronized void reservationDeleted(Reservation reservation) {
+        ensureLoaded();
+        if (!loaded) return;
+        unplace(reservation.getId());
+    }
+
+    /**
+     * Check if a single salle is free over [debut, fin) (approved and pending reservations block)
+     */
+    public boolean isFree(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+        return filterFree(List.of(salleId), debut, fin, true).contains(salleId);
+    }
+
+    /**
+     * Keep, in the given order, the salles that are free over [debut, fin)
+     */
+    public synchronized List<Long> filterFree(Collection<Long> salleIds, LocalDateTime debut, LocalDateTime fin,
+                                              boolean includePending) {
+        ensureLoaded();
+        Reservation.StatutReservation[] statuts = includePending
+                ? new Reservation.StatutReservation[]{Reservation.StatutReservation.APPROUVEE, Reservation.StatutReservation.EN_ATTENTE}
+                : new Reservation.StatutReservation[]{Reservation.StatutReservation.APPROUVEE};
+
+        if (!loaded || debut.isBefore(horizon)) {
+            AvailabilityIndex index = AvailabilityIndex.getInstance();
+            return salleIds.stream()
+                    .filter(salleId -> !index.hasConflict(salleId, debut, fin, null, statuts))
+                    .toList();
+        }
+
+        BitSet busy = new BitSet(roomIds.size());
+        BitSet interior = new BitSet(roomIds.size());
+        for (Reservation.StatutReservation statut : statuts) {
+            layers.get(statut).markBusy(debut, fin, busy, interior);
+        }
+
+        List<Long> free = new ArrayList<>();
+        for (Long salleId : salleIds) {
+            Integer idx = roomIndex.get(salleId);
+            if (idx == null || !busy.get(idx)) {
+                free.add(salleId);
+            } else if (!interior.get(idx)
+                    && !AvailabilityIndex.getInstance().hasConflict(salleId, debut, fin, null, statuts)) {
+                // Only a partially covered first/last slot was hit: confirm with the exact interval index
+                free.add(salleId);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Get the occupied slots of a salle for a day (bit i = slot starting at i * 15 minutes).
+     * Throws if the calendar cannot be loaded or the day is before its horizon.
+     */
+    public synchronized BitSet getDaySlots(Long salleId, LocalDate day, boolean includePending) {
+        ensureLoaded();
+        if (!loaded || day.atStartOfDay().isBefore(horizon)) {
+            throw new IllegalStateException("Occupancy calendar not loaded for " + day);
+        }
+        BitSet slots = new BitSet(SLOTS_PER_DAY);
+        Integer idx = roomIndex.get(salleId);
+        if (idx == null) return slots;
+
+        slots.or(layers.get(Reservation.StatutReservation.APPROUVEE).slotsOf(idx, day));
+        if (includePending) {
+            slots.or(layers.get(Reservation.StatutReservation.EN_ATTENTE).slotsOf(idx, day));
+        }
+        return slots;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    private static Map<Reservation.StatutReservation, Layer> newLayers() {
+        Map<Reservation.StatutReservation, Layer> layers = new EnumMap<>(Reservation.StatutReservation.class);
+        layers.put(Reservation.StatutReservation.APPROUVEE, new Layer());
+        layers.put(Reservation.StatutReservation.EN_ATTENTE, new Layer());
+        return layers;
+    }
+
+    private void place(Long reservationId, Long salleId, LocalDateTime debut, LocalDateTime fin,
+                       Reservation.StatutReservation statut) {
+        if (reservationId == null || salleId == null || debut == null || fin == null || !fin.isAfter(debut)) return;
+        int idx = roomIndex.computeIfAbsent(salleId, id -> {
+            roomIds.add(id);
+            return roomIds.size() - 1;
+        });
+
+        Layer layer = layers.get(statut);
+        Placement placement = new Placement(idx, statut);
+        for (LocalDate day = debut.toLocalDate(); day.atStartOfDay().isBefore(fin); day = day.plusDays(1)) {
+            int fromMinute = day.equals(debut.toLocalDate()) ? startMinute(debut) : 0;
+            int toMinute = day.equals(fin.toLocalDate()) ? endMinute(fin) : 24 * 60;
+            if (toMinute <= fromMinute) continue;
+
+            long[] mask = slotMask(fromMinute / SLOT_MINUTES, (toMinute - 1) / SLOT_MINUTES);
+            long[] bits = layer.dayBits(day, roomIds.size());
+            bits[2 * idx] |= mask[0];
+            bits[2 * idx + 1] |= mask[1];
+
+            placement.days.add(day);
+            placement.masks.add(mask);
+            layer.occupants.computeIfAbsent(day, d -> new HashMap<>())
+                    .computeIfAbsent(idx, i -> new ArrayList<>())
+                    .add(reservationId);
+        }
+        placements.put(reservationId, placement);
+    }
+
+    private void unplace(Long reservationId) {
+        Placement placement = placements.remove(reservationId);
+        if (placement == null) return;
+
+        Layer layer = layers.get(placement.statut);
+        int idx = placement.roomIdx;
+        for (LocalDate day : placement.days) {
+            List<Long> others = layer.occupants.get(day).get(idx);
+            others.remove(reservationId);
+
+            // Slots may be shared by overlapping pending requests: recompute from the remaining ones
+            long lo = 0;
+            long hi = 0;
+            for (Long other : others) {
+                long[] mask = placements.get(other).maskFor(day);
+                lo |= mask[0];
+                hi |= mask[1];
+            }
+            long[] bits = layer.dayBits(day, roomIds.size());
+            bits[2 * idx] = lo;
+            bits[2 * idx + 1] = hi;
+        }
+    }
+
+    private static int startMinute(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    private static int endMinute(LocalDateTime dateTime) {
+        boolean partial = dateTime.getSecond() > 0 || dateTime.getNano() > 0;
+        return dateTime.getHour() * 60 + dateTime.getMinute() + (partial ? 1 : 0);
+    }
+
+    private static boolean isSlotAligned(LocalDateTime dateTime) {
+        return dateTime.getMinute() % SLOT_MINUTES == 0 && dateTime.getSecond() == 0 && dateTime.getNano() == 0;
+    }
+
+    /** Two-long mask with slots firstSlot..lastSlot (inclusive) set */
+    private static long[] slotMask(int firstSlot, int lastSlot) {
+        long[] mask = new long[2];
+        for (int word = 0; word < 2; word++) {
+            int from = Math.max(firstSlot, word * 64);
+            int to = Math.min(lastSlot, word * 64 + 63);
+            if (from > to) continue;
+            int width = to - from + 1;
+            long bits = width == 64 ? -1L : ((1L << width) - 1);
+            mask[word] = bits << (from - word * 64);
+        }
+        return mask;
+    }
+
+    /**
+     * Bitmaps of one reservation status: for each day, longs [2i, 2i+1] hold the slots of salle i
+     */
+    private static class Layer {
+        final Map<LocalDate, long[]> days = new HashMap<>();
+        final Map<LocalDate, Map<Integer, List<Long>>> occupants = new HashMap<>();
+
+        long[] dayBits(LocalDate day, int roomCount) {
+            long[] bits = days.get(day);
+            int required = 2 * roomCount;
+            if (bits == null) {
+                bits = new long[required];
+                days.put(day, bits);
+            } else if (bits.length < required) {
+                bits = Arrays.copyOf(bits, required);
+                days.put(day, bits);
+            }
+            return bits;
+        }
+
+        BitSet slotsOf(int idx, LocalDate day) {
+            long[] bits = days.get(day);
+            if (bits == null || 2 * idx + 1 >= bits.length) {
+                return new BitSet(SLOTS_PER_DAY);
+            }
+            return BitSet.valueOf(new long[]{bits[2 * idx], bits[2 * idx + 1]});
+        }
+
+        /**
+         * OR into busy every salle having an occupied slot over [debut, fin), and into
+         * interior those hit in a slot fully covered by the period (a certain overlap)
+         */
+        void markBusy(LocalDateTime debut, LocalDateTime fin, BitSet busy, BitSet interior) {
+            for (LocalDate day = debut.toLocalDate(); day.atStartOfDay().isBefore(fin); day = day.plusDays(1)) {
+                long[] bits = days.get(day);
+                if (bits == null) continue;
+
+                boolean firstDay = day.equals(debut.toLocalDate());
+                boolean lastDay = day.equals(fin.toLocalDate());
+                int fromMinute = firstDay ? startMinute(debut) : 0;
+                int toMinute = lastDay ? endMinute(fin) : 24 * 60;
+                if (toMinute <= fromMinute) continue;
+
+                int firstSlot = fromMinute / SLOT_MINUTES;
+                int lastSlot = (toMinute - 1) / SLOT_MINUTES;
+                long[] all = slotMask(firstSlot, lastSlot);
+
+                int firstFull = !firstDay || isSlotAligned(debut) ? firstSlot : firstSlot + 1;
+                int lastFull = !lastDay || isSlotAligned(fin) ? lastSlot : lastSlot - 1;
+                long[] full = firstFull <= lastFull ? slotMask(firstFull, lastFull) : new long[2];
+
+                int rooms = bits.length / 2;
+                for (int i = 0; i < rooms; i++) {
+                    long lo = bits[2 * i];
+                    long hi = bits[2 * i + 1];
+                    if ((lo & all[0]) != 0 || (hi & all[1]) != 0) {
+                        busy.set(i);
+                        if ((lo & full[0]) != 0 || (hi & full[1]) != 0) {
+                            interior.set(i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Placement {
+        final int roomIdx;
+        final Reservation.StatutReservation statut;
+        final List<LocalDate> days = new ArrayList<>(1);
+        final List<long[]> masks = new ArrayList<>(1);
+
+        Placement(int roomIdx, Reservation.StatutReservation statut) {
+            this.roomIdx = roomIdx;
+            this.statut = statut;
+        }
+
+        long[] maskFor(LocalDate day) {
+            int i = days.indexOf(day);
+            return i >= 0 ? masks.get(i) : new long[2];
+        }
+    }
+}
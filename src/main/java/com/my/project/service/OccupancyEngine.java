@@ -0,0 +1,283 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Minute-accurate occupancy: the approved and pending reservations of each salle are swept
+ * in start order and merged into disjoint intervals (overlaps count once), then clipped to
+ * the salle's opening hours, holidays excluded. Opening hours and holidays come from
+ * occupancy.properties.
+ */
+public class OccupancyEngine {
+
+    private static final OccupancyEngine INSTANCE = new OccupancyEngine();
+
+    /** System property pointing to an external calendar; ./occupancy.properties is tried next */
+    private static final String CONFIG_PROPERTY = "occupancy.config";
+    private static final String CONFIG_FILE = "occupancy.properties";
+
+    /** Reservations that hold their salle */
+    private static final Set<Reservation.StatutReservation> OCCUPYING =
+            EnumSet.of(Reservation.StatutReservation.APPROUVEE, Reservation.StatutReservation.EN_ATTENTE);
+
+    private OpeningHours defaultHours;
+    private final Map<Long, OpeningHours> salleHours = new HashMap<>();
+    private final Set<LocalDate> holidays = new HashSet<>();
+    private boolean configured;
+
+    private OccupancyEngine() {
+    }
+
+    public static OccupancyEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the occupancy of every salle over [from, to)
+     */
+    public OccupancyReport compute(LocalDateTime from, LocalDateTime to) {
+        ensureConfigured();
+        OccupancyReport report = new OccupancyReport();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> salles = session.createQuery("SELECT s.id, s.type FROM Salle s", Object[].class);
+            salles.setCacheable(true);
+            for (Object[] row : salles.list()) {
+                Long salleId = (Long) row[0];
+                String type = row[1] != null ? (String) row[1] : "Non spécifié";
+                report.addSalle(salleId, type, openMinutes(hoursOf(salleId), toMinute(from), toMinute(to)));
+            }
+
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.salle.id, r.dateDebut, r.dateFin FROM Reservation r " +
+                            "WHERE r.statut IN (:statuts) AND r.salle IS NOT NULL " +
+                            "AND r.dateDebut < :to AND r.dateFin > :from " +
+                            "ORDER BY r.salle.id, r.dateDebut",
+                    Object[].class);
+            query.setParameter("statuts", OCCUPYING);
+            query.setParameter("from", from);
+            query.setParameter("to", to);
+            query.setReadOnly(true);
+
+            // Sweep each salle's intervals in start order, merging the overlapping ones
+            long windowStart = toMinute(from);
+            long windowEnd = toMinute(to);
+            Long salleId = null;
+            long start = 0;
+            long end = 0;
+            for (Object[] row : query.list()) {
+                Long rowSalle = (Long) row[0];
+                long rowStart = Math.max(toMinute((LocalDateTime) row[1]), windowStart);
+                long rowEnd = Math.min(toMinute((LocalDateTime) row[2]), windowEnd);
+                if (rowEnd <= rowStart) continue;
+
+                if (rowSalle.equals(salleId) && rowStart <= end) {
+                    end = Math.max(end, rowEnd);
+                    continue;
+                }
+                if (salleId != null) {
+                    report.addOccupied(salleId, openMinutes(hoursOf(salleId), start, end));
+                }
+                salleId = rowSalle;
+                start = rowStart;
+                end = rowEnd;
+            }
+            if (salleId != null) {
+                report.addOccupied(salleId, openMinutes(hoursOf(salleId), start, end));
+            }
+        } catch (Exception e) {
+            System.err.println("Error computing occupancy: " + e.getMessage());
+            return new OccupancyReport();
+        }
+        return report;
+    }
+
+    /**
+     * Get the opening minutes of [start, end) (epoch minutes), holidays excluded
+     */
+    private long openMinutes(OpeningHours hours, long start, long end) {
+        long total = 0;
+        long lastDay = Math.floorDiv(end - 1, 1440L);
+        for (long day = Math.floorDiv(start, 1440L); day <= lastDay; day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            if (holidays.contains(date)) continue;
+            int[] open = hours.of(date.getDayOfWeek());
+            long dayOpen = day * 1440 + open[0];
+            long dayClose = day * 1440 + open[1];
+            total += Math.max(0, Math.min(end, dayClose) - Math.max(start, dayOpen));
+        }
+        return total;
+    }
+
+    private OpeningHours hoursOf(Long salleId) {
+        return salleHours.getOrDefault(salleId, defaultHours);
+    }
+
+    private synchronized void ensureConfigured() {
+        if (configured) return;
+        try {
+            Properties properties = loadProperties();
+            defaultHours = new OpeningHours(properties, "hours", null);
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith("salle.") && key.contains(".hours")) {
+                    Long salleId = Long.valueOf(key.substring("salle.".length(), key.indexOf(".hours")));
+                    salleHours.computeIfAbsent(salleId, id ->
+                            new OpeningHours(properties, "salle." + id + ".hours", defaultHours));
+                }
+            }
+            for (String day : properties.getProperty("holidays", "").split(",")) {
+                if (!day.isBlank()) {
+                    holidays.add(LocalDate.parse(day.trim()));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading occupancy calendar: " + e.getMessage());
+            if (defaultHours == null) {
+                defaultHours = new OpeningHours(new Properties(), "hours", null);
+            }
+        }
+        configured = true;
+    }
+
+    /**
+     * Calendar from -Doccupancy.config, else ./occupancy.properties, else the bundled defaults
+     */
+    private static Properties loadProperties() throws IOException {
+        Properties properties = new Properties();
+        String configured = System.getProperty(CONFIG_PROPERTY);
+        Path external = Path.of(configured != null ? configured : CONFIG_FILE);
+        if (Files.isRegularFile(external)) {
+            try (InputStream in = Files.newInputStream(external)) {
+                properties.load(in);
+            }
+            return properties;
+        }
+        if (configured != null) {
+            throw new IOException("Fichier de configuration introuvable: " + configured);
+        }
+        try (InputStream in = OccupancyEngine.class.getResourceAsStream("/" + CONFIG_FILE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    private static long toMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * Inner class for the opening minutes [open, close) of each weekday
+     */
+    private static class OpeningHours {
+        private final int[][] days = new int[7][];
+
+        /** Read "prefix" then "prefix.DAY"; days not configured fall back to the parent */
+        OpeningHours(Properties properties, String prefix, OpeningHours parent) {
+            String all = properties.getProperty(prefix);
+            for (DayOfWeek day : DayOfWeek.values()) {
+                String value = properties.getProperty(prefix + "." + day.name(), all);
+                if (value != null) {
+                    days[day.ordinal()] = parse(value);
+                } else if (parent != null) {
+                    days[day.ordinal()] = parent.of(day);
+                } else {
+                    days[day.ordinal()] = new int[]{0, 0};
+                }
+            }
+        }
+
+        int[] of(DayOfWeek day) { return days[day.ordinal()]; }
+
+        /** "HH:mm-HH:mm", empty when closed */
+        private static int[] parse(String value) {
+            if (value.isBlank()) return new int[]{0, 0};
+            String[] bounds = value.trim().split("-");
+            LocalTime open = LocalTime.parse(bounds[0].trim());
+            LocalTime close = LocalTime.parse(bounds[1].trim());
+            int closeMinute = close.equals(LocalTime.MIDNIGHT) ? 1440 : close.toSecondOfDay() / 60;
+            return new int[]{open.toSecondOfDay() / 60, closeMinute};
+        }
+    }
+
+    /**
+     * Inner class for occupied and opening minutes per salle, with the rates derived from them
+     */
+    public static class OccupancyReport {
+        private final Map<Long, String> types = new HashMap<>();
+        private final Map<Long, Long> openMinutes = new HashMap<>();
+        private final Map<Long, Long> occupiedMinutes = new HashMap<>();
+
+        void addSalle(Long salleId, String type, long open) {
+            types.put(salleId, type);
+            openMinutes.put(salleId, open);
+        }
+
+        void addOccupied(Long salleId, long minutes) {
+            // Reservations of a salle deleted since are not part of any salle's capacity
+            if (types.containsKey(salleId)) {
+                occupiedMinutes.merge(salleId, minutes, Long::sum);
+            }
+        }
+
+        public long getOpenMinutes(Long salleId) { return openMinutes.getOrDefault(salleId, 0L); }
+        public long getOccupiedMinutes(Long salleId) { return occupiedMinutes.getOrDefault(salleId, 0L); }
+
+        /** Occupancy of a salle in percent */
+        public double getRoomRate(Long salleId) {
+            return rate(getOccupiedMinutes(salleId), getOpenMinutes(salleId));
+        }
+
+        /** Occupancy of the salles of a type in percent */
+        public double getTypeRate(String type) {
+            long occupied = 0;
+            long open = 0;
+            for (Map.Entry<Long, String> salle : types.entrySet()) {
+                if (salle.getValue().equals(type)) {
+                    occupied += getOccupiedMinutes(salle.getKey());
+                    open += getOpenMinutes(salle.getKey());
+                }
+            }
+            return rate(occupied, open);
+        }
+
+        /** Occupancy of every salle type in percent */
+        public Map<String, Double> getTypeRates() {
+            Map<String, Double> rates = new HashMap<>();
+            for (String type : new HashSet<>(types.values())) {
+                rates.put(type, getTypeRate(type));
+            }
+            return rates;
+        }
+
+        /** Occupancy of all salles in percent */
+        public double getGlobalRate() {
+            long occupied = occupiedMinutes.values().stream().mapToLong(Long::longValue).sum();
+            long open = openMinutes.values().stream().mapToLong(Long::longValue).sum();
+            return rate(occupied, open);
+        }
+
+        private static double rate(long occupied, long open) {
+            return open > 0 ? (double) occupied / open * 100 : 0.0;
+        }
+    }
+}
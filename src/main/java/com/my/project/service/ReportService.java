@@ -1,36 +1,64 @@
 package com.my.project.service;
 
-import com.itextpdf.text.Font;
-import com.my.project.model.Reservation;
+import com.my.project.model.ExportRow;
 import com.my.project.model.Utilisateur;
 import com.my.project.model.Salle;
 import com.my.project.model.Equipement;
+import com.my.project.repository.ExportRowRepository;
+import com.my.project.util.CsvWriter;
+import com.my.project.util.ExcelStyles;
+import com.my.project.util.PdfStyles;
+import com.my.project.util.SharedExecutor;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class ReportService {
 
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter SHORT_DATE_TIME = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+
+    /** Window of the usage breakdown section */
+    private static final int BREAKDOWN_DAYS = 30;
+
     private final UserService userService;
-    private final ReservationService reservationService;
     private final SalleService salleService;
     private final EquipementService equipementService;
     private final DashboardService dashboardService;
+    private final ExportRowRepository exportRows;
+    /** Utilisateur whose reservations are listed, null for all of them */
+    private final Long utilisateurId;
 
     public ReportService() {
+        this(null);
+    }
+
+    /**
+     * Reports listing only the reservations of the utilisateur (all of them if null)
+     */
+    public ReportService(Utilisateur utilisateur) {
         this.userService = new UserService();
-        this.reservationService = new ReservationService();
         this.salleService = new SalleService();
         this.equipementService = new EquipementService();
         this.dashboardService = new DashboardService();
+        this.exportRows = new ExportRowRepository();
+        this.utilisateurId = utilisateur != null ? utilisateur.getId() : null;
     }
 
     /**
@@ -43,34 +71,36 @@ public class ReportService {
 
         document.open();
 
-        // Add header
-        addPDFHeader(document, reportType);
-
-        // Add content based on report type
-        switch (reportType.toLowerCase()) {
-            case "complet":
-                addCompleteReport(document);
-                break;
-            case "reservations":
-                addReservationsReport(document);
-                break;
-            case "utilisateurs":
-                addUsersReport(document);
-                break;
-            case "salles":
-                addRoomsReport(document);
-                break;
-            case "equipements":
-                addEquipmentReport(document);
-                break;
-            default:
-                addCompleteReport(document);
+        try {
+            // Add header
+            addPDFHeader(document, reportType);
+
+            // Add content based on report type
+            switch (resolveReportType(reportType)) {
+                case "complet":
+                    addCompleteReport(document);
+                    break;
+                case "reservations":
+                    addReservationsReport(document);
+                    break;
+                case "utilisateurs":
+                    addUsersReport(document);
+                    break;
+                case "salles":
+                    addRoomsReport(document);
+                    break;
+                case "equipements":
+                    addEquipmentReport(document);
+                    break;
+                default:
+                    addCompleteReport(document);
+            }
+
+            // Add footer
+            addPDFFooter(document);
+        } finally {
+            document.close();
         }
-
-        // Add footer
-        addPDFFooter(document);
-
-        document.close();
         return fileName;
     }
 
@@ -79,49 +109,93 @@ public class ReportService {
      */
     public String generateExcelReport(String reportType) throws IOException {
         String fileName = generateFileName("rapport_" + reportType, "xlsx");
-        Workbook workbook = new XSSFWorkbook();
-
-        switch (reportType.toLowerCase()) {
-            case "complet":
-                createCompleteExcelReport(workbook);
-                break;
-            case "reservations":
-                createReservationsExcelSheet(workbook, "Réservations");
-                break;
-            case "utilisateurs":
-                createUsersExcelSheet(workbook, "Utilisateurs");
-                break;
-            case "salles":
-                createRoomsExcelSheet(workbook, "Salles");
-                break;
-            case "equipements":
-                createEquipmentExcelSheet(workbook, "Équipements");
-                break;
-            default:
-                createCompleteExcelReport(workbook);
+        // Rows are flushed to a compressed temp file as they are written
+        SXSSFWorkbook workbook = ExcelStyles.newStreamingWorkbook();
+        ExcelStyles styles = new ExcelStyles(workbook);
+
+        try (FileOutputStream outputStream = new FileOutputStream(fileName)) {
+            switch (resolveReportType(reportType)) {
+                case "complet":
+                    createCompleteExcelReport(workbook, styles);
+                    break;
+                case "reservations":
+                    createReservationsExcelSheet(workbook, styles, "Réservations");
+                    break;
+                case "utilisateurs":
+                    createUsersExcelSheet(workbook, styles, "Utilisateurs");
+                    break;
+                case "salles":
+                    createRoomsExcelSheet(workbook, styles, "Salles");
+                    break;
+                case "equipements":
+                    createEquipmentExcelSheet(workbook, styles, "Équipements");
+                    break;
+                default:
+                    createCompleteExcelReport(workbook, styles);
+            }
+
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
 
-        FileOutputStream outputStream = new FileOutputStream(fileName);
-        workbook.write(outputStream);
-        workbook.close();
-        outputStream.close();
+        return fileName;
+    }
+
+    /**
+     * Generate a raw dump of the reservations, optionally gzipped, straight from a cursor. A tab
+     * delimiter gives a TSV file; ',' or ';' (what Excel expects in French locales) a CSV file.
+     */
+    public String generateCSVReport(String reportType, char delimiter, boolean gzip) throws IOException {
+        String extension = (delimiter == '\t' ? "tsv" : "csv") + (gzip ? ".gz" : "");
+        String fileName = generateFileName("rapport_" + reportType, extension);
+
+        try (CsvWriter csv = new CsvWriter(new File(fileName), delimiter, gzip)) {
+            csv.writeRow("ID", "Utilisateur", "Email", "Salle", "Type de Salle",
+                    "Date Début", "Date Fin", "Statut", "Description", "Date Création");
+            try (Stream<ExportRow> rows = exportRows.stream(utilisateurId)) {
+                Iterator<ExportRow> it = rows.iterator();
+                while (it.hasNext()) {
+                    ExportRow row = it.next();
+                    csv.field(row.id())
+                            .field(row.utilisateurNom())
+                            .field(row.utilisateurEmail())
+                            .field(row.salleNom())
+                            .field(row.salleType())
+                            .field(row.dateDebut())
+                            .field(row.dateFin())
+                            .field(row.statut() != null ? row.statut().name() : null)
+                            .field(row.description())
+                            .field(row.dateCreation())
+                            .endRow();
+                }
+            }
+        }
 
         return fileName;
     }
 
+    /**
+     * Get the section to generate: "mes_reservations", and every report of a ReportService
+     * restricted to one utilisateur, only list that utilisateur's reservations
+     */
+    private String resolveReportType(String reportType) {
+        String type = reportType.toLowerCase();
+        return utilisateurId != null || "mes_reservations".equals(type) ? "reservations" : type;
+    }
+
     // PDF Report Methods
     private void addPDFHeader(Document document, String reportType) throws DocumentException {
         // Title
-        Font titleFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.DARK_GRAY);
-        Paragraph title = new Paragraph("Rapport " + capitalizeFirst(reportType), titleFont);
+        Paragraph title = new Paragraph("Rapport " + capitalizeFirst(reportType), PdfStyles.TITLE);
         title.setAlignment(Element.ALIGN_CENTER);
         title.setSpacingAfter(10);
         document.add(title);
 
         // Date and time
-        Font dateFont = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, BaseColor.GRAY);
         Paragraph date = new Paragraph("Généré le: " +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy à HH:mm")), dateFont);
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy à HH:mm")), PdfStyles.SUBTITLE);
         date.setAlignment(Element.ALIGN_CENTER);
         date.setSpacingAfter(20);
         document.add(date);
@@ -131,28 +205,53 @@ public class ReportService {
     }
 
     private void addCompleteReport(Document document) throws DocumentException {
+        // Every section's data is fetched concurrently, then laid out in order
+        CompleteReportData data = fetchCompleteReportData();
+
         // Statistics Summary
-        addStatisticsSummary(document);
+        addStatisticsSummary(document, data.getStats());
 
         // Recent Reservations
-        addRecentReservations(document);
+        addRecentReservations(document, data.getRecentReservations());
 
         // User Statistics
-        addUserStatistics(document);
+        addUserStatistics(document, data.getUserStats());
 
         // Room Utilization
-        addRoomUtilization(document);
+        addRoomUtilization(document, data.getRoomStats());
 
         // Equipment Status
-        addEquipmentStatus(document);
+        addEquipmentStatus(document, data.getEquipmentStats());
+
+        // Usage Breakdown
+        addUsageBreakdown(document, data.getBreakdown());
     }
 
-    private void addStatisticsSummary(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-        document.add(new Paragraph("📊 Résumé Statistiques", sectionFont));
-        document.add(new Paragraph(" "));
+    /**
+     * Fetch the data of every section of the complete report on the shared executor
+     */
+    private CompleteReportData fetchCompleteReportData() {
+        ExecutorService executor = SharedExecutor.get();
+        CompletableFuture<Map<String, Integer>> stats =
+                CompletableFuture.supplyAsync(dashboardService::getBasicStats, executor);
+        CompletableFuture<List<ExportRow>> recentReservations =
+                CompletableFuture.supplyAsync(() -> exportRows.findUpcoming(utilisateurId, 10), executor);
+        CompletableFuture<UserService.UserStats> userStats =
+                CompletableFuture.supplyAsync(userService::getUserStats, executor);
+        CompletableFuture<SalleService.RoomStats> roomStats =
+                CompletableFuture.supplyAsync(salleService::getRoomStats, executor);
+        CompletableFuture<EquipementService.EquipmentStats> equipmentStats =
+                CompletableFuture.supplyAsync(equipementService::getEquipmentStats, executor);
+        CompletableFuture<List<ReservationCube.CubeRow>> breakdown =
+                CompletableFuture.supplyAsync(this::getUsageBreakdown, executor);
+
+        return new CompleteReportData(stats.join(), recentReservations.join(), userStats.join(),
+                roomStats.join(), equipmentStats.join(), breakdown.join());
+    }
 
-        Map<String, Integer> stats = dashboardService.getBasicStats();
+    private void addStatisticsSummary(Document document, Map<String, Integer> stats) throws DocumentException {
+        document.add(new Paragraph("📊 Résumé Statistiques", PdfStyles.SECTION));
+        document.add(new Paragraph(" "));
 
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(100);
@@ -167,41 +266,31 @@ public class ReportService {
     }
 
     private void addReservationsReport(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-        document.add(new Paragraph("📋 Rapport des Réservations", sectionFont));
+        document.add(new Paragraph("📋 Rapport des Réservations", PdfStyles.SECTION));
         document.add(new Paragraph(" "));
 
-        List<Reservation> reservations = reservationService.getUpcomingReservations(20);
-
-        PdfPTable table = new PdfPTable(4);
-        table.setWidthPercentage(100);
-        table.setSpacingAfter(15);
-
-        // Headers
-        addTableHeader(table, "Utilisateur");
-        addTableHeader(table, "Salle");
-        addTableHeader(table, "Date Début");
-        addTableHeader(table, "Date Fin");
-
-        // Data
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        for (Reservation reservation : reservations) {
-            addTableCell(table, reservation.getUtilisateur().getNom());
-            addTableCell(table, reservation.getSalle().getNom());
-            addTableCell(table, reservation.getDateDebut().format(formatter));
-            addTableCell(table, reservation.getDateFin().format(formatter));
+        PdfStyles.StreamingTable table = new PdfStyles.StreamingTable(document, 100,
+                "Utilisateur", "Salle", "Date Début", "Date Fin");
+
+        try (Stream<ExportRow> reservations = exportRows.stream(utilisateurId)) {
+            Iterator<ExportRow> it = reservations.iterator();
+            while (it.hasNext()) {
+                ExportRow reservation = it.next();
+                table.addRow(reservation.utilisateurNom(),
+                        reservation.salleNom(),
+                        formatDateTime(reservation.dateDebut(), DATE_TIME),
+                        formatDateTime(reservation.dateFin(), DATE_TIME));
+            }
         }
 
-        document.add(table);
+        table.finish();
     }
 
-    private void addRecentReservations(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        document.add(new Paragraph("Réservations Récentes (10 dernières)", sectionFont));
+    private void addRecentReservations(Document document, List<ExportRow> recentReservations)
+            throws DocumentException {
+        document.add(new Paragraph("Réservations Récentes (10 dernières)", PdfStyles.SUBSECTION));
         document.add(new Paragraph(" "));
 
-        List<Reservation> recentReservations = reservationService.getUpcomingReservations(10);
-
         PdfPTable table = new PdfPTable(3);
         table.setWidthPercentage(100);
         table.setSpacingAfter(15);
@@ -210,23 +299,19 @@ public class ReportService {
         addTableHeader(table, "Salle");
         addTableHeader(table, "Date");
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM HH:mm");
-        for (Reservation reservation : recentReservations) {
-            addTableCell(table, reservation.getUtilisateur().getNom());
-            addTableCell(table, reservation.getSalle().getNom());
-            addTableCell(table, reservation.getDateDebut().format(formatter));
+        for (ExportRow reservation : recentReservations) {
+            addTableCell(table, reservation.utilisateurNom());
+            addTableCell(table, reservation.salleNom());
+            addTableCell(table, formatDateTime(reservation.dateDebut(), SHORT_DATE_TIME));
         }
 
         document.add(table);
     }
 
-    private void addUserStatistics(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        document.add(new Paragraph("👥 Statistiques Utilisateurs", sectionFont));
+    private void addUserStatistics(Document document, UserService.UserStats userStats) throws DocumentException {
+        document.add(new Paragraph("👥 Statistiques Utilisateurs", PdfStyles.SUBSECTION));
         document.add(new Paragraph(" "));
 
-        UserService.UserStats userStats = userService.getUserStats();
-
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(50);
         table.setSpacingAfter(15);
@@ -239,13 +324,10 @@ public class ReportService {
         document.add(table);
     }
 
-    private void addRoomUtilization(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        document.add(new Paragraph("🏢 Utilisation des Salles", sectionFont));
+    private void addRoomUtilization(Document document, SalleService.RoomStats roomStats) throws DocumentException {
+        document.add(new Paragraph("🏢 Utilisation des Salles", PdfStyles.SUBSECTION));
         document.add(new Paragraph(" "));
 
-        SalleService.RoomStats roomStats = salleService.getRoomStats();
-
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(50);
         table.setSpacingAfter(15);
@@ -258,13 +340,11 @@ public class ReportService {
         document.add(table);
     }
 
-    private void addEquipmentStatus(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        document.add(new Paragraph("🖥️ État des Équipements", sectionFont));
+    private void addEquipmentStatus(Document document, EquipementService.EquipmentStats equipStats)
+            throws DocumentException {
+        document.add(new Paragraph("🖥️ État des Équipements", PdfStyles.SUBSECTION));
         document.add(new Paragraph(" "));
 
-        EquipementService.EquipmentStats equipStats = equipementService.getEquipmentStats();
-
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(50);
         table.setSpacingAfter(15);
@@ -277,254 +357,250 @@ public class ReportService {
         document.add(table);
     }
 
-    private void addUsersReport(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-        document.add(new Paragraph("👥 Rapport des Utilisateurs", sectionFont));
+    private void addUsageBreakdown(Document document, List<ReservationCube.CubeRow> breakdown)
+            throws DocumentException {
+        document.add(new Paragraph("🔎 Répartition par Type de Salle et Rôle (" + BREAKDOWN_DAYS + " derniers jours)",
+                PdfStyles.SUBSECTION));
         document.add(new Paragraph(" "));
 
-        List<Utilisateur> users = userService.findAll();
-
-        PdfPTable table = new PdfPTable(3);
+        PdfPTable table = new PdfPTable(5);
         table.setWidthPercentage(100);
         table.setSpacingAfter(15);
 
-        addTableHeader(table, "Nom");
-        addTableHeader(table, "Email");
+        addTableHeader(table, "Type de Salle");
         addTableHeader(table, "Rôle");
-
-        for (Utilisateur user : users) {
-            addTableCell(table, user.getNom());
-            addTableCell(table, user.getEmail());
-            addTableCell(table, user.getRole());
+        addTableHeader(table, "Réservations");
+        addTableHeader(table, "Heures");
+        addTableHeader(table, "Utilisateurs");
+
+        for (ReservationCube.CubeRow row : breakdown) {
+            addTableCell(table, row.getKey(0));
+            addTableCell(table, row.getKey(1));
+            addTableCell(table, String.valueOf(row.getCount()));
+            addTableCell(table, String.format("%.1f", row.getMinutes() / 60.0));
+            addTableCell(table, String.valueOf(row.getDistinctUsers()));
         }
 
         document.add(table);
     }
 
-    private void addRoomsReport(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-        document.add(new Paragraph("🏢 Rapport des Salles", sectionFont));
+    /** Reservations of the last BREAKDOWN_DAYS days per salle type and role */
+    private List<ReservationCube.CubeRow> getUsageBreakdown() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        return ReservationCube.getInstance().query(
+                List.of(ReservationCube.Dimension.SALLE_TYPE, ReservationCube.Dimension.ROLE),
+                EnumSet.allOf(ReservationCube.Measure.class), tomorrow.minusDays(BREAKDOWN_DAYS), tomorrow);
+    }
+
+    private void addUsersReport(Document document) throws DocumentException {
+        document.add(new Paragraph("👥 Rapport des Utilisateurs", PdfStyles.SECTION));
         document.add(new Paragraph(" "));
 
-        List<Salle> salles = salleService.findAll();
+        PdfStyles.StreamingTable table = new PdfStyles.StreamingTable(document, 100,
+                "Nom", "Email", "Rôle");
 
-        PdfPTable table = new PdfPTable(4);
-        table.setWidthPercentage(100);
-        table.setSpacingAfter(15);
+        try (Stream<Utilisateur> users = userService.stream()) {
+            Iterator<Utilisateur> it = users.iterator();
+            while (it.hasNext()) {
+                Utilisateur user = it.next();
+                table.addRow(user.getNom(), user.getEmail(), user.getRole());
+            }
+        }
+
+        table.finish();
+    }
 
-        addTableHeader(table, "Nom");
-        addTableHeader(table, "Capacité");
-        addTableHeader(table, "Type");
-        addTableHeader(table, "Disponible");
+    private void addRoomsReport(Document document) throws DocumentException {
+        document.add(new Paragraph("🏢 Rapport des Salles", PdfStyles.SECTION));
+        document.add(new Paragraph(" "));
 
-        for (Salle salle : salles) {
-            addTableCell(table, salle.getNom());
-            addTableCell(table, String.valueOf(salle.getCapacite()));
-            addTableCell(table, salle.getType());
-            addTableCell(table, salle.isDisponible() ? "Oui" : "Non");
+        PdfStyles.StreamingTable table = new PdfStyles.StreamingTable(document, 100,
+                "Nom", "Capacité", "Type", "Disponible");
+
+        try (Stream<Salle> salles = salleService.stream()) {
+            Iterator<Salle> it = salles.iterator();
+            while (it.hasNext()) {
+                Salle salle = it.next();
+                table.addRow(salle.getNom(),
+                        String.valueOf(salle.getCapacite()),
+                        salle.getType(),
+                        salle.isDisponible() ? "Oui" : "Non");
+            }
         }
 
-        document.add(table);
+        table.finish();
     }
 
     private void addEquipmentReport(Document document) throws DocumentException {
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-        document.add(new Paragraph("🖥️ Rapport des Équipements", sectionFont));
+        document.add(new Paragraph("🖥️ Rapport des Équipements", PdfStyles.SECTION));
         document.add(new Paragraph(" "));
 
-        List<Equipement> equipements = equipementService.findAll();
-
-        PdfPTable table = new PdfPTable(3);
-        table.setWidthPercentage(100);
-        table.setSpacingAfter(15);
-
-        addTableHeader(table, "Nom");
-        addTableHeader(table, "Type");
-        addTableHeader(table, "Description");
+        PdfStyles.StreamingTable table = new PdfStyles.StreamingTable(document, 100,
+                "Nom", "Type", "Description");
 
-        for (Equipement equipement : equipements) {
-            addTableCell(table, equipement.getNom());
-            addTableCell(table, equipement.getType());
-            addTableCell(table, equipement.getDescription() != null ? equipement.getDescription() : "");
+        try (Stream<Equipement> equipements = equipementService.stream()) {
+            Iterator<Equipement> it = equipements.iterator();
+            while (it.hasNext()) {
+                Equipement equipement = it.next();
+                table.addRow(equipement.getNom(), equipement.getType(), equipement.getDescription());
+            }
         }
 
-        document.add(table);
+        table.finish();
     }
 
     private void addPDFFooter(Document document) throws DocumentException {
         document.add(new Paragraph(" "));
-        Font footerFont = new Font(Font.FontFamily.HELVETICA, 8, Font.ITALIC, BaseColor.GRAY);
         Paragraph footer = new Paragraph("Rapport généré automatiquement par Admin Hub - " +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), footerFont);
+                LocalDateTime.now().format(DATE_TIME), PdfStyles.FOOTER);
         footer.setAlignment(Element.ALIGN_CENTER);
         document.add(footer);
     }
 
     // Excel Report Methods
-    private void createCompleteExcelReport(Workbook workbook) {
-        createReservationsExcelSheet(workbook, "Réservations");
-        createUsersExcelSheet(workbook, "Utilisateurs");
-        createRoomsExcelSheet(workbook, "Salles");
-        createEquipmentExcelSheet(workbook, "Équipements");
-        createStatisticsExcelSheet(workbook, "Statistiques");
+    private void createCompleteExcelReport(Workbook workbook, ExcelStyles styles) {
+        // The summary sheets are fetched while the streamed sheets are written
+        ExecutorService executor = SharedExecutor.get();
+        CompletableFuture<Map<String, Integer>> stats =
+                CompletableFuture.supplyAsync(dashboardService::getBasicStats, executor);
+        CompletableFuture<List<ReservationCube.CubeRow>> breakdown =
+                CompletableFuture.supplyAsync(this::getUsageBreakdown, executor);
+
+        createReservationsExcelSheet(workbook, styles, "Réservations");
+        createUsersExcelSheet(workbook, styles, "Utilisateurs");
+        createRoomsExcelSheet(workbook, styles, "Salles");
+        createEquipmentExcelSheet(workbook, styles, "Équipements");
+        createStatisticsExcelSheet(workbook, styles, "Statistiques", stats.join());
+        createBreakdownExcelSheet(workbook, styles, "Répartition", breakdown.join());
     }
 
-    private void createReservationsExcelSheet(Workbook workbook, String sheetName) {
+    private void createReservationsExcelSheet(Workbook workbook, ExcelStyles styles, String sheetName) {
         Sheet sheet = workbook.createSheet(sheetName);
 
         // Header
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("Utilisateur");
-        headerRow.createCell(2).setCellValue("Salle");
-        headerRow.createCell(3).setCellValue("Date Début");
-        headerRow.createCell(4).setCellValue("Date Fin");
-        headerRow.createCell(5).setCellValue("Description");
+        styles.writeHeader(sheet, "ID", "Utilisateur", "Salle", "Date Début", "Date Fin", "Description");
+        ExcelStyles.setColumnWidths(sheet, 8, 25, 20, 17, 17, 40);
 
-        // Data
-        List<Reservation> reservations = reservationService.findAll();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-        for (int i = 0; i < reservations.size(); i++) {
-            Reservation reservation = reservations.get(i);
-            Row row = sheet.createRow(i + 1);
-            row.createCell(0).setCellValue(reservation.getId());
-            row.createCell(1).setCellValue(reservation.getUtilisateur().getNom());
-            row.createCell(2).setCellValue(reservation.getSalle().getNom());
-            row.createCell(3).setCellValue(reservation.getDateDebut().format(formatter));
-            row.createCell(4).setCellValue(reservation.getDateFin().format(formatter));
-            row.createCell(5).setCellValue(reservation.getDescription() != null ? reservation.getDescription() : "");
-        }
+        // Data, streamed from a cursor
+        int rowNum = 1;
 
-        // Auto-size columns
-        for (int i = 0; i < 6; i++) {
-            sheet.autoSizeColumn(i);
+        try (Stream<ExportRow> reservations = exportRows.stream(utilisateurId)) {
+            Iterator<ExportRow> it = reservations.iterator();
+            while (it.hasNext()) {
+                ExportRow reservation = it.next();
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(reservation.id());
+                row.createCell(1).setCellValue(orEmpty(reservation.utilisateurNom()));
+                row.createCell(2).setCellValue(orEmpty(reservation.salleNom()));
+                styles.setDateTime(row.createCell(3), reservation.dateDebut());
+                styles.setDateTime(row.createCell(4), reservation.dateFin());
+                row.createCell(5).setCellValue(orEmpty(reservation.description()));
+            }
         }
     }
 
-    private void createUsersExcelSheet(Workbook workbook, String sheetName) {
+    private void createUsersExcelSheet(Workbook workbook, ExcelStyles styles, String sheetName) {
         Sheet sheet = workbook.createSheet(sheetName);
 
         // Header
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("Nom");
-        headerRow.createCell(2).setCellValue("Email");
-        headerRow.createCell(3).setCellValue("Rôle");
+        styles.writeHeader(sheet, "ID", "Nom", "Email", "Rôle");
+        ExcelStyles.setColumnWidths(sheet, 8, 25, 30, 12);
 
-        // Data
-        List<Utilisateur> users = userService.findAll();
+        // Data, streamed from a cursor
+        AtomicInteger rowNum = new AtomicInteger(1);
 
-        for (int i = 0; i < users.size(); i++) {
-            Utilisateur user = users.get(i);
-            Row row = sheet.createRow(i + 1);
+        userService.stream(user -> {
+            Row row = sheet.createRow(rowNum.getAndIncrement());
             row.createCell(0).setCellValue(user.getId());
             row.createCell(1).setCellValue(user.getNom());
             row.createCell(2).setCellValue(user.getEmail());
             row.createCell(3).setCellValue(user.getRole());
-        }
-
-        // Auto-size columns
-        for (int i = 0; i < 4; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        });
     }
 
-    private void createRoomsExcelSheet(Workbook workbook, String sheetName) {
+    private void createRoomsExcelSheet(Workbook workbook, ExcelStyles styles, String sheetName) {
         Sheet sheet = workbook.createSheet(sheetName);
 
         // Header
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("Nom");
-        headerRow.createCell(2).setCellValue("Capacité");
-        headerRow.createCell(3).setCellValue("Type");
-        headerRow.createCell(4).setCellValue("Disponible");
+        styles.writeHeader(sheet, "ID", "Nom", "Capacité", "Type", "Disponible");
+        ExcelStyles.setColumnWidths(sheet, 8, 20, 10, 20, 11);
 
-        // Data
-        List<Salle> salles = salleService.findAll();
+        // Data, streamed from a cursor
+        AtomicInteger rowNum = new AtomicInteger(1);
 
-        for (int i = 0; i < salles.size(); i++) {
-            Salle salle = salles.get(i);
-            Row row = sheet.createRow(i + 1);
+        salleService.stream(salle -> {
+            Row row = sheet.createRow(rowNum.getAndIncrement());
             row.createCell(0).setCellValue(salle.getId());
             row.createCell(1).setCellValue(salle.getNom());
             row.createCell(2).setCellValue(salle.getCapacite());
             row.createCell(3).setCellValue(salle.getType());
             row.createCell(4).setCellValue(salle.isDisponible() ? "Oui" : "Non");
-        }
-
-        // Auto-size columns
-        for (int i = 0; i < 5; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        });
     }
 
-    private void createEquipmentExcelSheet(Workbook workbook, String sheetName) {
+    private void createEquipmentExcelSheet(Workbook workbook, ExcelStyles styles, String sheetName) {
         Sheet sheet = workbook.createSheet(sheetName);
 
         // Header
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("Nom");
-        headerRow.createCell(2).setCellValue("Type");
-        headerRow.createCell(3).setCellValue("Description");
+        styles.writeHeader(sheet, "ID", "Nom", "Type", "Description");
+        ExcelStyles.setColumnWidths(sheet, 8, 20, 15, 40);
 
-        // Data
-        List<Equipement> equipements = equipementService.findAll();
+        // Data, streamed from a cursor
+        AtomicInteger rowNum = new AtomicInteger(1);
 
-        for (int i = 0; i < equipements.size(); i++) {
-            Equipement equipement = equipements.get(i);
-            Row row = sheet.createRow(i + 1);
+        equipementService.stream(equipement -> {
+            Row row = sheet.createRow(rowNum.getAndIncrement());
             row.createCell(0).setCellValue(equipement.getId());
             row.createCell(1).setCellValue(equipement.getNom());
             row.createCell(2).setCellValue(equipement.getType());
             row.createCell(3).setCellValue(equipement.getDescription() != null ? equipement.getDescription() : "");
-        }
+        });
+    }
+
+    private void createBreakdownExcelSheet(Workbook workbook, ExcelStyles styles, String sheetName,
+                                           List<ReservationCube.CubeRow> breakdowns) {
+        Sheet sheet = workbook.createSheet(sheetName);
 
-        // Auto-size columns
-        for (int i = 0; i < 4; i++) {
-            sheet.autoSizeColumn(i);
+        // Header
+        styles.writeHeader(sheet, "Type de Salle", "Rôle", "Réservations", "Heures", "Utilisateurs");
+        ExcelStyles.setColumnWidths(sheet, 20, 12, 13, 10, 13);
+
+        // Data
+        int rowNum = 1;
+        for (ReservationCube.CubeRow breakdown : breakdowns) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(breakdown.getKey(0));
+            row.createCell(1).setCellValue(breakdown.getKey(1));
+            row.createCell(2).setCellValue(breakdown.getCount());
+            styles.setDecimal(row.createCell(3), breakdown.getMinutes() / 60.0);
+            row.createCell(4).setCellValue(breakdown.getDistinctUsers());
         }
     }
 
-    private void createStatisticsExcelSheet(Workbook workbook, String sheetName) {
+    private void createStatisticsExcelSheet(Workbook workbook, ExcelStyles styles, String sheetName,
+                                            Map<String, Integer> stats) {
         Sheet sheet = workbook.createSheet(sheetName);
 
         // Header
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Métrique");
-        headerRow.createCell(1).setCellValue("Valeur");
+        styles.writeHeader(sheet, "Métrique", "Valeur");
+        ExcelStyles.setColumnWidths(sheet, 25, 10);
 
         // Data
-        Map<String, Integer> stats = dashboardService.getBasicStats();
-
         int rowNum = 1;
         for (Map.Entry<String, Integer> entry : stats.entrySet()) {
             Row row = sheet.createRow(rowNum++);
             row.createCell(0).setCellValue(translateStatKey(entry.getKey()));
             row.createCell(1).setCellValue(entry.getValue());
         }
-
-        // Auto-size columns
-        sheet.autoSizeColumn(0);
-        sheet.autoSizeColumn(1);
     }
 
     // Utility methods
     private void addTableHeader(PdfPTable table, String text) {
-        Font headerFont = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, BaseColor.WHITE);
-        PdfPCell cell = new PdfPCell(new Phrase(text, headerFont));
-        cell.setBackgroundColor(BaseColor.DARK_GRAY);
-        cell.setPadding(5);
-        table.addCell(cell);
+        PdfStyles.addHeader(table, text);
     }
 
     private void addTableCell(PdfPTable table, String text) {
-        Font cellFont = new Font(Font.FontFamily.HELVETICA, 9);
-        PdfPCell cell = new PdfPCell(new Phrase(text, cellFont));
-        cell.setPadding(3);
-        table.addCell(cell);
+        PdfStyles.addCell(table, text);
     }
 
     private void addTableRow(PdfPTable table, String label, String value) {
@@ -532,6 +608,14 @@ public class ReportService {
         addTableCell(table, value);
     }
 
+    private String formatDateTime(LocalDateTime dateTime, DateTimeFormatter formatter) {
+        return dateTime != null ? dateTime.format(formatter) : "";
+    }
+
+    private String orEmpty(String text) {
+        return text != null ? text : "";
+    }
+
     private String generateFileName(String baseName, String extension) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         return baseName + "_" + timestamp + "." + extension;
@@ -551,4 +635,35 @@ public class ReportService {
             default: return key;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Inner class for the data of the complete report's sections
+     */
+    private static class CompleteReportData {
+        private final Map<String, Integer> stats;
+        private final List<ExportRow> recentReservations;
+        private final UserService.UserStats userStats;
+        private final SalleService.RoomStats roomStats;
+        private final EquipementService.EquipmentStats equipmentStats;
+        private final List<ReservationCube.CubeRow> breakdown;
+
+        CompleteReportData(Map<String, Integer> stats, List<ExportRow> recentReservations,
+                           UserService.UserStats userStats, SalleService.RoomStats roomStats,
+                           EquipementService.EquipmentStats equipmentStats,
+                           List<ReservationCube.CubeRow> breakdown) {
+            this.stats = stats;
+            this.recentReservations = recentReservations;
+            this.userStats = userStats;
+            this.roomStats = roomStats;
+            this.equipmentStats = equipmentStats;
+            this.breakdown = breakdown;
+        }
+
+        public Map<String, Integer> getStats() { return stats; }
+        public List<ExportRow> getRecentReservations() { return recentReservations; }
+        public UserService.UserStats getUserStats() { return userStats; }
+        public SalleService.RoomStats getRoomStats() { return roomStats; }
+        public EquipementService.EquipmentStats getEquipmentStats() { return equipmentStats; }
+        public List<ReservationCube.CubeRow> getBreakdown() { return breakdown; }
+    }
+}
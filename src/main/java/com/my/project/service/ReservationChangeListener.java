@@ -0,0 +1,13 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+
+/**
+ * Receives reservation writes once they have been committed
+ */
+public interface ReservationChangeListener {
+
+    void reservationCommitted(Reservation reservation);
+
+    void reservationDeleted(Reservation reservation);
+}
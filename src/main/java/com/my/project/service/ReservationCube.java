@@ -0,0 +1,460 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory cube of reservation cells per (day, salle, role, hour, statut), each holding
+ * the count, the minutes and the utilisateurs of its reservations. Cells are ordered by
+ * day, so a window is a sub-map; query() groups them by any dimensions, derived ones
+ * (salle type, weekday, month) included. Committed changes move a reservation's
+ * contribution between cells. Loading reads the table without holding the cube's monitor,
+ * so writes notified meanwhile are not blocked; they are replayed on the new cells.
+ */
+public class ReservationCube implements ReservationChangeListener {
+
+    private static final ReservationCube INSTANCE = new ReservationCube();
+
+    /** Rows fetched per round trip while loading */
+    private static final int FETCH_SIZE = 1000;
+
+    // Cell key layout: day | salle | role | hour | statut (0 = unknown for salle, role and statut)
+    private static final int STATUT_BITS = 3;
+    private static final int HOUR_BITS = 5;
+    private static final int ROLE_BITS = 6;
+    private static final int SALLE_BITS = 16;
+    private static final int HOUR_SHIFT = STATUT_BITS;
+    private static final int ROLE_SHIFT = HOUR_SHIFT + HOUR_BITS;
+    private static final int SALLE_SHIFT = ROLE_SHIFT + ROLE_BITS;
+    private static final int DAY_SHIFT = SALLE_SHIFT + SALLE_BITS;
+
+    private static final String[] WEEKDAYS = {"Lundi", "Mardi", "Mercredi", "Jeudi", "Vendredi", "Samedi", "Dimanche"};
+
+    /**
+     * Axes a query can group and filter by
+     */
+    public enum Dimension {
+        SALLE("Salle"),
+        SALLE_TYPE("Type de salle"),
+        ROLE("Rôle"),
+        HOUR("Heure"),
+        WEEKDAY("Jour"),
+        MONTH("Mois"),
+        STATUT("Statut");
+
+        private final String label;
+
+        Dimension(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    /**
+     * Values a query can compute per group
+     */
+    public enum Measure {
+        COUNT, MINUTES, DISTINCT_USERS
+    }
+
+    private CubeState state = new CubeState();
+    private boolean loaded;
+    /** Changes notified while a load is reading the table, null when no load is running */
+    private List<Consumer<CubeState>> pendingChanges;
+
+    private ReservationCube() {
+    }
+
+    public static ReservationCube getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * (Re)build every cell from the database
+     */
+    public void load() {
+        rebuild(false);
+    }
+
+    private void ensureLoaded() {
+        rebuild(true);
+    }
+
+    /**
+     * Read the table into new cells outside the monitor, then swap them in with the changes
+     * notified meanwhile. Only one load runs at a time; other callers wait for it.
+     */
+    private void rebuild(boolean onlyIfMissing) {
+        synchronized (this) {
+            while (pendingChanges != null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (onlyIfMissing && loaded) return;
+            pendingChanges = new ArrayList<>();
+        }
+
+        CubeState fresh = new CubeState();
+        boolean complete = false;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.id, r.dateDebut, r.dateFin, s.id, u.id, u.role, r.statut FROM Reservation r " +
+                            "LEFT JOIN r.salle s LEFT JOIN r.utilisateur u WHERE r.dateDebut IS NOT NULL",
+                    Object[].class);
+            query.setReadOnly(true);
+            query.setFetchSize(FETCH_SIZE);
+
+            try (ScrollableResults<Object[]> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    fresh.add((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2], (Long) row[3],
+                            (Long) row[4], (String) row[5], (Reservation.StatutReservation) row[6]);
+                }
+            }
+            complete = true;
+        } catch (Exception e) {
+            System.err.println("Error loading reservation cube: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                if (complete) {
+                    pendingChanges.forEach(change -> change.accept(fresh));
+                    state = fresh;
+                    loaded = true;
+                }
+                pendingChanges = null;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void reservationCommitted(Reservation reservation) {
+        Long id = reservation.getId();
+        LocalDateTime debut = reservation.getDateDebut();
+        LocalDateTime fin = reservation.getDateFin();
+        Long salleId = reservation.getSalle() != null ? reservation.getSalle().getId() : null;
+        Long userId = reservation.getUtilisateur() != null ? reservation.getUtilisateur().getId() : null;
+        String role = reservation.getUtilisateur() != null ? reservation.getUtilisateur().getRole() : null;
+        Reservation.StatutReservation statut = reservation.getStatut();
+        apply(cube -> {
+            cube.remove(id);
+            if (debut != null) {
+                cube.add(id, debut, fin, salleId, userId, role, statut);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void reservationDeleted(Reservation reservation) {
+        Long id = reservation.getId();
+        apply(cube -> cube.remove(id));
+    }
+
+    /** Apply a change to the current cells, and queue it for the cells of a running load */
+    private void apply(Consumer<CubeState> change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        if (loaded) {
+            change.accept(state);
+        }
+    }
+
+    /**
+     * Group the reservations starting on the days [from, to) by the given dimensions.
+     * Filters keep the reservations whose value of each filtered dimension is one of the
+     * given labels. Rows come in the dimensions' natural order (hours, weekdays, months),
+     * by label otherwise. Salles are grouped by identity, so salles sharing a name stay apart.
+     */
+    public List<CubeRow> query(List<Dimension> dimensions, Set<Measure> measures,
+                               Map<Dimension, Set<String>> filters, LocalDate from, LocalDate to) {
+        // Loading and the salle names' round trip happen before taking the monitor
+        ensureLoaded();
+        Map<Long, String[]> salles = getSalles();
+        synchronized (this) {
+            return group(dimensions, measures, filters, from, to, salles);
+        }
+    }
+
+    private List<CubeRow> group(List<Dimension> dimensions, Set<Measure> measures,
+                                Map<Dimension, Set<String>> filters, LocalDate from, LocalDate to,
+                                Map<Long, String[]> salles) {
+        boolean distinctUsers = measures.contains(Measure.DISTINCT_USERS);
+        Map<List<Object>, Group> groups = new LinkedHashMap<>();
+
+        long fromKey = from.toEpochDay() << DAY_SHIFT;
+        long toKey = to.toEpochDay() << DAY_SHIFT;
+        for (Map.Entry<Long, Cell> entry : state.cells.subMap(fromKey, toKey).entrySet()) {
+            long key = entry.getKey();
+            boolean kept = true;
+            for (Map.Entry<Dimension, Set<String>> filter : filters.entrySet()) {
+                if (!filter.getValue().contains(labelOf(filter.getKey(), key, salles))) {
+                    kept = false;
+                    break;
+                }
+            }
+            if (!kept) continue;
+
+            // Salles by index, labelled once the groups are built
+            List<Object> labels = new ArrayList<>(dimensions.size());
+            for (Dimension dimension : dimensions) {
+                labels.add(dimension == Dimension.SALLE
+                        ? (Object) field(key, SALLE_SHIFT, SALLE_BITS)
+                        : labelOf(dimension, key, salles));
+            }
+            Group group = groups.get(labels);
+            if (group == null) {
+                long[] order = new long[dimensions.size()];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = orderOf(dimensions.get(i), key);
+                }
+                group = new Group(order);
+                groups.put(labels, group);
+            }
+            Cell cell = entry.getValue();
+            group.count += cell.count;
+            group.minutes += cell.minutes;
+            if (distinctUsers) {
+                cell.users.keySet().forEach(group.users::set);
+            }
+        }
+
+        List<CubeRow> rows = new ArrayList<>();
+        for (Map.Entry<List<Object>, Group> entry : groups.entrySet()) {
+            List<String> keys = new ArrayList<>(dimensions.size());
+            for (Object label : entry.getKey()) {
+                keys.add(label instanceof Integer salle ? salleLabel(salle, salles, 0) : (String) label);
+            }
+            Group group = entry.getValue();
+            rows.add(new CubeRow(keys, group.order, group.count, group.minutes,
+                    distinctUsers ? group.users.cardinality() : 0));
+        }
+        rows.sort(CubeRow.ORDER);
+        return rows;
+    }
+
+    /**
+     * Group without filters
+     */
+    public List<CubeRow> query(List<Dimension> dimensions, Set<Measure> measures, LocalDate from, LocalDate to) {
+        return query(dimensions, measures, Collections.emptyMap(), from, to);
+    }
+
+    /** Salle id -> {nom, type}, read at query time so renamed salles show their current values */
+    private Map<Long, String[]> getSalles() {
+        Map<Long, String[]> salles = new HashMap<>();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery("SELECT s.id, s.nom, s.type FROM Salle s", Object[].class);
+            query.setCacheable(true);
+            for (Object[] row : query.list()) {
+                salles.put((Long) row[0], new String[]{(String) row[1], row[2] != null ? (String) row[2] : "Non spécifié"});
+            }
+        } catch (Exception e) {
+            System.err.println("Error getting salles for reservation cube: " + e.getMessage());
+        }
+        return salles;
+    }
+
+    private String labelOf(Dimension dimension, long key, Map<Long, String[]> salles) {
+        switch (dimension) {
+            case SALLE:
+                return salleLabel(field(key, SALLE_SHIFT, SALLE_BITS), salles, 0);
+            case SALLE_TYPE:
+                return salleLabel(field(key, SALLE_SHIFT, SALLE_BITS), salles, 1);
+            case ROLE: {
+                int role = field(key, ROLE_SHIFT, ROLE_BITS);
+                return role == 0 ? "inconnu" : state.roleNames.get(role - 1);
+            }
+            case HOUR:
+                return String.format("%02dh", field(key, HOUR_SHIFT, HOUR_BITS));
+            case WEEKDAY:
+                return WEEKDAYS[LocalDate.ofEpochDay(key >>> DAY_SHIFT).getDayOfWeek().ordinal()];
+            case MONTH:
+                return YearMonth.from(LocalDate.ofEpochDay(key >>> DAY_SHIFT)).toString();
+            case STATUT: {
+                int statut = field(key, 0, STATUT_BITS);
+                return statut == 0 ? "Non spécifié" : Reservation.StatutReservation.values()[statut - 1].name();
+            }
+            default:
+                throw new IllegalArgumentException("Dimension inconnue: " + dimension);
+        }
+    }
+
+    /** Name (info 0) or type (info 1) of a salle index */
+    private String salleLabel(int salle, Map<Long, String[]> salles, int info) {
+        if (salle == 0) return "Non spécifié";
+        String[] values = salles.get(state.salleIds.get(salle - 1));
+        return values != null ? values[info] : "Non spécifié";
+    }
+
+    /** Natural position of a cell on a dimension; 0 where the label order is used */
+    private long orderOf(Dimension dimension, long key) {
+        switch (dimension) {
+            case HOUR: return field(key, HOUR_SHIFT, HOUR_BITS);
+            case WEEKDAY: return LocalDate.ofEpochDay(key >>> DAY_SHIFT).getDayOfWeek().ordinal();
+            case MONTH: {
+                LocalDate day = LocalDate.ofEpochDay(key >>> DAY_SHIFT);
+                return day.getYear() * 12L + day.getMonthValue();
+            }
+            case STATUT: return field(key, 0, STATUT_BITS);
+            default: return 0;
+        }
+    }
+
+    private static int field(long key, int shift, int bits) {
+        return (int) ((key >>> shift) & ((1L << bits) - 1));
+    }
+
+    /**
+     * Inner class for the cells with the dictionaries their keys refer to
+     */
+    private static class CubeState {
+        private final NavigableMap<Long, Cell> cells = new TreeMap<>();
+        private final Map<Long, Contribution> contributions = new HashMap<>();
+        private final Map<Long, Integer> salleIndex = new HashMap<>();
+        private final List<Long> salleIds = new ArrayList<>();
+        private final Map<Long, Integer> userIndex = new HashMap<>();
+        private final Map<String, Integer> roleIndex = new HashMap<>();
+        private final List<String> roleNames = new ArrayList<>();
+
+        void add(Long id, LocalDateTime debut, LocalDateTime fin, Long salleId, Long userId, String role,
+                 Reservation.StatutReservation statut) {
+            int salle = salleId != null ? salleIndex.computeIfAbsent(salleId, k -> {
+                salleIds.add(k);
+                return salleIds.size();
+            }) : 0;
+            int roleCode = role != null ? roleIndex.computeIfAbsent(role, k -> {
+                roleNames.add(k);
+                return roleNames.size();
+            }) : 0;
+            int user = userId != null ? userIndex.computeIfAbsent(userId, k -> userIndex.size()) : -1;
+            long minutes = fin != null ? Math.max(Duration.between(debut, fin).toMinutes(), 0) : 0;
+
+            long key = (debut.toLocalDate().toEpochDay() << DAY_SHIFT)
+                    | ((long) salle << SALLE_SHIFT)
+                    | ((long) roleCode << ROLE_SHIFT)
+                    | ((long) debut.getHour() << HOUR_SHIFT)
+                    | (statut != null ? statut.ordinal() + 1 : 0);
+            Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+            cell.count++;
+            cell.minutes += minutes;
+            if (user >= 0) {
+                cell.users.merge(user, 1, Integer::sum);
+            }
+            contributions.put(id, new Contribution(key, minutes, user));
+        }
+
+        void remove(Long id) {
+            Contribution contribution = contributions.remove(id);
+            if (contribution == null) return;
+            Cell cell = cells.get(contribution.key);
+            cell.count--;
+            cell.minutes -= contribution.minutes;
+            if (contribution.user >= 0) {
+                cell.users.computeIfPresent(contribution.user, (user, count) -> count > 1 ? count - 1 : null);
+            }
+            if (cell.count == 0) {
+                cells.remove(contribution.key);
+            }
+        }
+    }
+
+    /**
+     * Inner class for a cell: reservations and minutes, with each utilisateur's reservation count
+     */
+    private static class Cell {
+        private int count;
+        private long minutes;
+        private final Map<Integer, Integer> users = new HashMap<>(4);
+    }
+
+    /**
+     * Inner class for the cell a reservation was added to, so it can be taken back out
+     */
+    private static class Contribution {
+        private final long key;
+        private final long minutes;
+        private final int user;
+
+        Contribution(long key, long minutes, int user) {
+            this.key = key;
+            this.minutes = minutes;
+            this.user = user;
+        }
+    }
+
+    /**
+     * Inner class for a group being accumulated by a query
+     */
+    private static class Group {
+        private final long[] order;
+        private int count;
+        private long minutes;
+        private final BitSet users = new BitSet();
+
+        Group(long[] order) {
+            this.order = order;
+        }
+    }
+
+    /**
+     * Inner class for a query result row: the dimension labels and the measures
+     */
+    public static class CubeRow {
+        private static final Comparator<CubeRow> ORDER = (a, b) -> {
+            for (int i = 0; i < a.keys.size(); i++) {
+                int compare = a.order[i] != b.order[i]
+                        ? Long.compare(a.order[i], b.order[i])
+                        : a.keys.get(i).compareTo(b.keys.get(i));
+                if (compare != 0) return compare;
+            }
+            return 0;
+        };
+
+        private final List<String> keys;
+        private final long[] order;
+        private final int count;
+        private final long minutes;
+        private final int distinctUsers;
+
+        CubeRow(List<String> keys, long[] order, int count, long minutes, int distinctUsers) {
+            this.keys = keys;
+            this.order = order;
+            this.count = count;
+            this.minutes = minutes;
+            this.distinctUsers = distinctUsers;
+        }
+
+        public List<String> getKeys() { return keys; }
+        public String getKey(int dimension) { return keys.get(dimension); }
+        public int getCount() { return count; }
+        public long getMinutes() { return minutes; }
+        public int getDistinctUsers() { return distinctUsers; }
+    }
+}
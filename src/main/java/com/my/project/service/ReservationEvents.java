@@ -0,0 +1,62 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans committed reservation writes out to the structures derived from the Reservation table
+ * (in-memory indexes, rollup tables, cached analytics)
+ */
+public final class ReservationEvents {
+
+    private static final List<ReservationChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    static {
+        register(AvailabilityIndex.getInstance());
+        register(OccupancyCalendar.getInstance());
+        register(ReservationRollups.getInstance());
+        // Before the fact store: the cache looks up the start the store held before the change
+        register(AnalyticsCache.getInstance());
+        register(ReservationFactStore.getInstance());
+        // After the fact store: cached analytics are refreshed once the store holds the change
+        register(AnalyticsCache.getInstance().refresher());
+        register(ReservationCube.getInstance());
+    }
+
+    private ReservationEvents() {
+    }
+
+    public static void register(ReservationChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Notify listeners that a reservation was created or modified
+     */
+    public static void committed(Reservation reservation) {
+        if (reservation == null || reservation.getId() == null) return;
+        for (ReservationChangeListener listener : listeners) {
+            try {
+                listener.reservationCommitted(reservation);
+            } catch (Exception e) {
+                System.err.println("Error propagating reservation change: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notify listeners that a reservation was removed from the database
+     */
+    public static void deleted(Reservation reservation) {
+        if (reservation == null || reservation.getId() == null) return;
+        for (ReservationChangeListener listener : listeners) {
+            try {
+                listener.reservationDeleted(reservation);
+            } catch (Exception e) {
+                System.err.println("Error propagating reservation deletion: " + e.getMessage());
+            }
+        }
+    }
+}
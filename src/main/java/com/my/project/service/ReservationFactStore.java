@@ -0,0 +1,406 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Columnar in-memory copy of the Reservation table for analytics. One row per
+ * reservation is spread over primitive arrays (start epoch-minute, duration in
+ * minutes, salle and utilisateur dictionary indexes, statut byte), about 29 bytes
+ * per reservation. Rows are kept sorted by start so a window is a binary
+ * search plus a tight loop; committed changes are appended to an unsorted tail,
+ * superseded rows are marked dead, and both are folded back by a periodic re-sort.
+ * Loading reads the table without holding the store's monitor, so writes notified
+ * meanwhile are not blocked; they are replayed on the new columns.
+ */
+public class ReservationFactStore implements ReservationChangeListener {
+
+    private static final ReservationFactStore INSTANCE = new ReservationFactStore();
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Rows fetched per round trip while loading */
+    private static final int FETCH_SIZE = 1000;
+
+    /** Windows with fewer sorted rows are scanned on the calling thread */
+    private static final int PARALLEL_THRESHOLD = 50_000;
+
+    /** Re-sort once the unsorted tail or the dead rows exceed 1/8 of the rows */
+    private static final int COMPACT_RATIO = 8;
+
+    private FactColumns columns = new FactColumns();
+    private boolean loaded;
+    /** Changes notified while a load is reading the table, null when no load is running */
+    private List<Consumer<FactColumns>> pendingChanges;
+
+    private ReservationFactStore() {
+    }
+
+    public static ReservationFactStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * (Re)load every reservation, streamed in start order
+     */
+    public void load() {
+        rebuild(false);
+    }
+
+    private void ensureLoaded() {
+        rebuild(true);
+    }
+
+    /**
+     * Read the table into new columns outside the monitor, then swap them in with the changes
+     * notified meanwhile. Only one load runs at a time; other callers wait for it.
+     */
+    private void rebuild(boolean onlyIfMissing) {
+        synchronized (this) {
+            while (pendingChanges != null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (onlyIfMissing && loaded) return;
+            pendingChanges = new ArrayList<>();
+        }
+
+        FactColumns fresh = new FactColumns();
+        boolean complete = false;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.id, r.dateDebut, r.dateFin, s.id, u.id, r.statut FROM Reservation r " +
+                            "LEFT JOIN r.salle s LEFT JOIN r.utilisateur u " +
+                            "WHERE r.dateDebut IS NOT NULL ORDER BY r.dateDebut",
+                    Object[].class);
+            query.setReadOnly(true);
+            query.setFetchSize(FETCH_SIZE);
+
+            try (ScrollableResults<Object[]> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    fresh.append((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2], (Long) row[3],
+                            (Long) row[4], (Reservation.StatutReservation) row[5]);
+                }
+            }
+            fresh.sortedSize = fresh.size;
+            complete = true;
+        } catch (Exception e) {
+            System.err.println("Error loading reservation fact store: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                if (complete) {
+                    pendingChanges.forEach(change -> change.accept(fresh));
+                    columns = fresh;
+                    loaded = true;
+                }
+                pendingChanges = null;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void reservationCommitted(Reservation reservation) {
+        Long id = reservation.getId();
+        LocalDateTime debut = reservation.getDateDebut();
+        LocalDateTime fin = reservation.getDateFin();
+        Long salleId = reservation.getSalle() != null ? reservation.getSalle().getId() : null;
+        Long userId = reservation.getUtilisateur() != null ? reservation.getUtilisateur().getId() : null;
+        Reservation.StatutReservation statut = reservation.getStatut();
+        apply(store -> {
+            store.remove(id);
+            if (debut != null) {
+                store.append(id, debut, fin, salleId, userId, statut);
+            }
+            store.compactIfNeeded();
+        });
+    }
+
+    @Override
+    public synchronized void reservationDeleted(Reservation reservation) {
+        Long id = reservation.getId();
+        apply(store -> {
+            store.remove(id);
+            store.compactIfNeeded();
+        });
+    }
+
+    /** Apply a change to the current columns, and queue it for the columns of a running load */
+    private void apply(Consumer<FactColumns> change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        if (loaded) {
+            change.accept(columns);
+        }
+    }
+
+    /**
+     * Aggregate the reservations starting in [from, to). Throws if the store cannot be
+     * loaded, so a failed load is never read as a window without reservations.
+     */
+    public AnalyticsAccumulator aggregate(LocalDateTime from, LocalDateTime to) {
+        ensureLoaded();
+        synchronized (this) {
+            if (!loaded) {
+                throw new IllegalStateException("Reservation fact store is not loaded");
+            }
+            AnalyticsAccumulator aggregate = new AnalyticsAccumulator();
+
+            int fromMinute = toMinute(from);
+            int toMinute = toMinute(to);
+            int begin = columns.lowerBound(fromMinute);
+            int end = columns.lowerBound(toMinute);
+            if (end - begin < PARALLEL_THRESHOLD) {
+                columns.scan(aggregate, begin, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            } else {
+                // Partial aggregates of each month (or week) of the sorted rows, merged pairwise
+                int[] bounds = columns.partitionBounds(from, to, begin, end);
+                aggregate.merge(ForkJoinPool.commonPool().invoke(new ScanTask(columns, bounds, 0, bounds.length - 1)));
+            }
+            columns.scan(aggregate, columns.sortedSize, columns.size, fromMinute, toMinute);
+            aggregate.resolveIds(columns.salleIds, columns.userIds);
+            return aggregate;
+        }
+    }
+
+    /**
+     * Get the start currently held for a reservation, or null if none is held
+     */
+    public synchronized LocalDateTime getStart(Long id) {
+        if (id == null) return null;
+        Integer row = columns.rowById.get(id);
+        return row != null ? LocalDateTime.ofEpochSecond(columns.startMinutes[row] * 60L, 0, ZoneOffset.UTC) : null;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get the number of live reservations held
+     */
+    public int size() {
+        ensureLoaded();
+        synchronized (this) {
+            return columns.size - columns.deadCount;
+        }
+    }
+
+    /**
+     * Aggregate of the partitions [lo, hi): each leaf scans the rows of one partition and
+     * results are merged, which is exact, so the outcome equals a sequential scan. The
+     * columns cannot change meanwhile: the caller holds the store's lock until invoke returns.
+     */
+    private static class ScanTask extends RecursiveTask<AnalyticsAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FactColumns columns;
+        private final int[] bounds;
+        private final int lo;
+        private final int hi;
+
+        ScanTask(FactColumns columns, int[] bounds, int lo, int hi) {
+            this.columns = columns;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected AnalyticsAccumulator compute() {
+            if (hi - lo == 1) {
+                AnalyticsAccumulator partial = new AnalyticsAccumulator();
+                columns.scan(partial, bounds[lo], bounds[hi], Integer.MIN_VALUE, Integer.MAX_VALUE);
+                return partial;
+            }
+            int mid = (lo + hi) >>> 1;
+            ScanTask left = new ScanTask(columns, bounds, lo, mid);
+            left.fork();
+            AnalyticsAccumulator result = new ScanTask(columns, bounds, mid, hi).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    private static int toMinute(LocalDateTime dateTime) {
+        return (int) (dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    /**
+     * Inner class for the columns and dictionaries of one load, with the changes applied since
+     */
+    private static class FactColumns {
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int[] startMinutes = new int[INITIAL_CAPACITY];
+        private int[] durations = new int[INITIAL_CAPACITY];
+        private int[] salles = new int[INITIAL_CAPACITY];
+        private int[] users = new int[INITIAL_CAPACITY];
+        private byte[] statuts = new byte[INITIAL_CAPACITY];
+        private final BitSet dead = new BitSet();
+        /** Row of the live entry of each reservation, rebuilt when rows are compacted */
+        private final Map<Long, Integer> rowById = new HashMap<>();
+        private int size;
+        private int sortedSize;
+        private int deadCount;
+
+        private final Map<Long, Integer> salleIndex = new HashMap<>();
+        private final List<Long> salleIds = new ArrayList<>();
+        private final Map<Long, Integer> userIndex = new HashMap<>();
+        private final List<Long> userIds = new ArrayList<>();
+
+        /** Rows [begin, end) starting in [fromMinute, toMinute) */
+        private void scan(AnalyticsAccumulator aggregate, int begin, int end, int fromMinute, int toMinute) {
+            for (int i = begin; i < end; i++) {
+                int start = startMinutes[i];
+                if (start < fromMinute || start >= toMinute || dead.get(i)) continue;
+                aggregate.add(1, durations[i], salles[i], users[i], statuts[i]);
+            }
+        }
+
+        /**
+         * Row bounds of the calendar months of [from, to) within the sorted rows [begin, end),
+         * or of its weeks when there are too few months to keep every worker busy
+         */
+        private int[] partitionBounds(LocalDateTime from, LocalDateTime to, int begin, int end) {
+            List<LocalDateTime> starts = new ArrayList<>();
+            for (LocalDateTime month = from.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+                 month.isBefore(to); month = month.plusMonths(1)) {
+                starts.add(month);
+            }
+            if (starts.size() + 1 < ForkJoinPool.getCommonPoolParallelism()) {
+                starts.clear();
+                for (LocalDateTime week = from.plusWeeks(1); week.isBefore(to); week = week.plusWeeks(1)) {
+                    starts.add(week);
+                }
+            }
+
+            int[] bounds = new int[starts.size() + 2];
+            bounds[0] = begin;
+            for (int i = 0; i < starts.size(); i++) {
+                bounds[i + 1] = lowerBound(toMinute(starts.get(i)));
+            }
+            bounds[bounds.length - 1] = end;
+            return bounds;
+        }
+
+        /** First sorted row starting at or after minute */
+        private int lowerBound(int minute) {
+            int low = 0;
+            int high = sortedSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startMinutes[mid] < minute) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void append(Long id, LocalDateTime debut, LocalDateTime fin, Long salleId, Long userId,
+                            Reservation.StatutReservation statut) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            startMinutes[size] = toMinute(debut);
+            durations[size] = fin != null ? (int) Math.max(0, ChronoUnit.MINUTES.between(debut, fin)) : 0;
+            salles[size] = salleId != null ? salleIndex.computeIfAbsent(salleId, key -> {
+                salleIds.add(key);
+                return salleIds.size() - 1;
+            }) : -1;
+            users[size] = userId != null ? userIndex.computeIfAbsent(userId, key -> {
+                userIds.add(key);
+                return userIds.size() - 1;
+            }) : -1;
+            statuts[size] = statut != null ? (byte) statut.ordinal() : -1;
+            rowById.put(id, size);
+            size++;
+        }
+
+        /** Mark the live row of a reservation dead */
+        private void remove(Long id) {
+            if (id == null) return;
+            Integer row = rowById.remove(id);
+            if (row != null) {
+                dead.set(row);
+                deadCount++;
+            }
+        }
+
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            startMinutes = Arrays.copyOf(startMinutes, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            salles = Arrays.copyOf(salles, capacity);
+            users = Arrays.copyOf(users, capacity);
+            statuts = Arrays.copyOf(statuts, capacity);
+        }
+
+        /** Drop dead rows and sort the tail back in: rows are reordered by (start, position) */
+        private void compactIfNeeded() {
+            if ((size - sortedSize) * COMPACT_RATIO <= size && deadCount * COMPACT_RATIO <= size) return;
+
+            long[] order = new long[size - deadCount];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!dead.get(i)) {
+                    order[n++] = ((long) startMinutes[i] << 32) | i;
+                }
+            }
+            Arrays.sort(order);
+
+            long[] newIds = new long[ids.length];
+            int[] newStarts = new int[ids.length];
+            int[] newDurations = new int[ids.length];
+            int[] newSalles = new int[ids.length];
+            int[] newUsers = new int[ids.length];
+            byte[] newStatuts = new byte[ids.length];
+            for (int k = 0; k < n; k++) {
+                int i = (int) order[k];
+                newIds[k] = ids[i];
+                newStarts[k] = startMinutes[i];
+                newDurations[k] = durations[i];
+                newSalles[k] = salles[i];
+                newUsers[k] = users[i];
+                newStatuts[k] = statuts[i];
+                rowById.put(ids[i], k);
+            }
+            ids = newIds;
+            startMinutes = newStarts;
+            durations = newDurations;
+            salles = newSalles;
+            users = newUsers;
+            statuts = newStatuts;
+            dead.clear();
+            deadCount = 0;
+            size = n;
+            sortedSize = n;
+        }
+    }
+}
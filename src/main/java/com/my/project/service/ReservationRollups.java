@@ -0,0 +1,341 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.model.ReservationDailyUsers;
+import com.my.project.model.ReservationRollupEntry;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintains the daily rollup tables (reservation_daily_room, reservation_hourly,
+ * reservation_daily_users) read by the dashboards and analytics. A committed change only recomputes, from the Reservation
+ * table, the (day, salle) and (day, hour) buckets the reservation leaves and enters; the
+ * buckets it was last counted in are kept in reservation_rollup_entry. backfill() rebuilds
+ * everything and repairs any drift. Refreshes run in order on a background thread, so a
+ * reservation write on the UI thread does not wait for them; readers call awaitRefreshes().
+ */
+public class ReservationRollups implements ReservationChangeListener {
+
+    private static final ReservationRollups INSTANCE = new ReservationRollups();
+
+    private static final String DAILY_ROOM_INSERT =
+            "INSERT INTO reservation_daily_room (day, salle_id, reservation_count, minutes, " +
+                    "pending_count, approved_count, rejected_count, cancelled_count) " +
+                    "SELECT DATE(r.dateDebut), r.salle_id, COUNT(*), " +
+                    "COALESCE(SUM(TIMESTAMPDIFF(MINUTE, r.dateDebut, r.dateFin)), 0), " +
+                    "SUM(r.statut = 'EN_ATTENTE'), SUM(r.statut = 'APPROUVEE'), " +
+                    "SUM(r.statut = 'REJETEE'), SUM(r.statut = 'ANNULEE') " +
+                    "FROM Reservation r WHERE r.dateDebut IS NOT NULL AND r.salle_id IS NOT NULL";
+    private static final String DAILY_ROOM_GROUP = " GROUP BY DATE(r.dateDebut), r.salle_id";
+
+    private static final String HOURLY_INSERT =
+            "INSERT INTO reservation_hourly (day, hour, reservation_count) " +
+                    "SELECT DATE(r.dateDebut), HOUR(r.dateDebut), COUNT(*) " +
+                    "FROM Reservation r WHERE r.dateDebut IS NOT NULL";
+    private static final String HOURLY_GROUP = " GROUP BY DATE(r.dateDebut), HOUR(r.dateDebut)";
+
+    private static final String ENTRY_INSERT =
+            "INSERT INTO reservation_rollup_entry (reservation_id, day, hour, salle_id) " +
+                    "SELECT r.id, DATE(r.dateDebut), HOUR(r.dateDebut), r.salle_id " +
+                    "FROM Reservation r WHERE r.dateDebut IS NOT NULL";
+
+    private static final String RANGE = " AND r.dateDebut >= :from AND r.dateDebut < :to";
+
+    /** Rows fetched per round trip while rebuilding the user sketches */
+    private static final int FETCH_SIZE = 1000;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reservation-rollups");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean verified;
+
+    private ReservationRollups() {
+    }
+
+    public static ReservationRollups getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuild every rollup row from the Reservation table
+     */
+    public synchronized void backfill() {
+        backfill(null, null);
+    }
+
+    /**
+     * Rebuild the rollup rows of the days [from, to) from the Reservation table (all days if from is null)
+     */
+    public synchronized void backfill(LocalDate from, LocalDate to) {
+        boolean ranged = from != null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                for (String table : new String[]{"reservation_daily_room", "reservation_hourly",
+                        "reservation_daily_users", "reservation_rollup_entry"}) {
+                    MutationQuery delete = mutation(session, table,
+                            "DELETE FROM " + table + (ranged ? " WHERE day >= :from AND day < :to" : ""));
+                    if (ranged) {
+                        delete.setParameter("from", from).setParameter("to", to);
+                    }
+                    delete.executeUpdate();
+                }
+                String[][] inserts = {
+                        {"reservation_daily_room", DAILY_ROOM_INSERT + (ranged ? RANGE : "") + DAILY_ROOM_GROUP},
+                        {"reservation_hourly", HOURLY_INSERT + (ranged ? RANGE : "") + HOURLY_GROUP},
+                        {"reservation_rollup_entry", ENTRY_INSERT + (ranged ? RANGE : "")}};
+                for (String[] insert : inserts) {
+                    MutationQuery query = mutation(session, insert[0], insert[1]);
+                    if (ranged) {
+                        query.setParameter("from", from.atStartOfDay()).setParameter("to", to.atStartOfDay());
+                    }
+                    query.executeUpdate();
+                }
+                rebuildDailyUsers(session, ranged ? from.atStartOfDay() : null, ranged ? to.atStartOfDay() : null);
+                tx.commit();
+                verified = true;
+            } catch (Exception e) {
+                tx.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            System.err.println("Error backfilling reservation rollups: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run a full backfill once if the rollups do not cover every reservation (first start, missed events)
+     */
+    public synchronized void ensureBackfilled() {
+        if (verified) return;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Long reservations = session.createQuery(
+                    "SELECT COUNT(r) FROM Reservation r WHERE r.dateDebut IS NOT NULL", Long.class).uniqueResult();
+            Long entries = session.createQuery(
+                    "SELECT COUNT(e) FROM ReservationRollupEntry e", Long.class).uniqueResult();
+            Long userDays = session.createQuery(
+                    "SELECT COUNT(d) FROM ReservationDailyUsers d", Long.class).uniqueResult();
+            // reservation_daily_users came after the other tables: an empty one is rebuilt too
+            if (reservations.equals(entries) && (reservations == 0 || userDays > 0)) {
+                verified = true;
+                return;
+            }
+        } catch (Exception e) {
+            System.err.println("Error checking reservation rollups: " + e.getMessage());
+            return;
+        }
+        backfill();
+    }
+
+    /**
+     * Check the rollups (and backfill them if needed) on the background thread
+     */
+    public void backfillInBackground() {
+        executor.execute(this::ensureBackfilled);
+    }
+
+    /**
+     * Wait until the rollups are backfilled and every queued refresh is applied
+     */
+    public void awaitRefreshes() {
+        try {
+            executor.submit(this::ensureBackfilled).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error waiting for reservation rollups: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void reservationCommitted(Reservation reservation) {
+        Long id = reservation.getId();
+        LocalDateTime debut = reservation.getDateDebut();
+        Long salleId = reservation.getSalle() != null ? reservation.getSalle().getId() : null;
+        executor.execute(() -> refresh(id, debut, salleId));
+    }
+
+    @Override
+    public void reservationDeleted(Reservation reservation) {
+        Long id = reservation.getId();
+        executor.execute(() -> refresh(id, null, null));
+    }
+
+    /**
+     * Move a reservation's contribution: recompute its previous and current buckets and record the new ones
+     */
+    private synchronized void refresh(Long reservationId, LocalDateTime debut, Long salleId) {
+        ensureBackfilled();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                ReservationRollupEntry entry = session.get(ReservationRollupEntry.class, reservationId);
+                LocalDate day = debut != null ? debut.toLocalDate() : null;
+                int hour = debut != null ? debut.getHour() : -1;
+
+                if (entry != null) {
+                    boolean sameDailyRoom = entry.getDay().equals(day) && Objects.equals(entry.getSalleId(), salleId);
+                    boolean sameHourly = entry.getDay().equals(day) && entry.getHour() == hour;
+                    // The Reservation table already holds the new state: recomputing the old buckets drops it from them
+                    if (!sameDailyRoom && entry.getSalleId() != null) {
+                        recomputeDailyRoom(session, entry.getDay(), entry.getSalleId());
+                    }
+                    if (!sameHourly) {
+                        recomputeHourly(session, entry.getDay(), entry.getHour());
+                    }
+                    if (!entry.getDay().equals(day)) {
+                        recomputeDailyUsers(session, entry.getDay());
+                    }
+                }
+
+                if (day != null) {
+                    if (salleId != null) {
+                        recomputeDailyRoom(session, day, salleId);
+                    }
+                    recomputeHourly(session, day, hour);
+                    recomputeDailyUsers(session, day);
+                    if (entry == null) {
+                        entry = new ReservationRollupEntry();
+                        entry.setReservationId(reservationId);
+                        session.persist(entry);
+                    }
+                    entry.setDay(day);
+                    entry.setHour(hour);
+                    entry.setSalleId(salleId);
+                } else if (entry != null) {
+                    session.remove(entry);
+                }
+                tx.commit();
+            } catch (Exception e) {
+                tx.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            System.err.println("Error updating reservation rollups: " + e.getMessage());
+            verified = false;
+        }
+    }
+
+    private void recomputeDailyRoom(Session session, LocalDate day, Long salleId) {
+        mutation(session, "reservation_daily_room",
+                "DELETE FROM reservation_daily_room WHERE day = :day AND salle_id = :salle")
+                .setParameter("day", day)
+                .setParameter("salle", salleId)
+                .executeUpdate();
+        mutation(session, "reservation_daily_room",
+                DAILY_ROOM_INSERT + RANGE + " AND r.salle_id = :salle" + DAILY_ROOM_GROUP)
+                .setParameter("from", day.atStartOfDay())
+                .setParameter("to", day.plusDays(1).atStartOfDay())
+                .setParameter("salle", salleId)
+                .executeUpdate();
+    }
+
+    private void recomputeHourly(Session session, LocalDate day, int hour) {
+        LocalDateTime from = day.atTime(hour, 0);
+        mutation(session, "reservation_hourly", "DELETE FROM reservation_hourly WHERE day = :day AND hour = :hour")
+                .setParameter("day", day)
+                .setParameter("hour", hour)
+                .executeUpdate();
+        mutation(session, "reservation_hourly", HOURLY_INSERT + RANGE + HOURLY_GROUP)
+                .setParameter("from", from)
+                .setParameter("to", from.plusHours(1))
+                .executeUpdate();
+    }
+
+    /**
+     * Native statement writing one rollup table. Declaring the table keeps Hibernate from
+     * evicting every second-level cache region and the query cache after the update.
+     */
+    private static MutationQuery mutation(Session session, String table, String sql) {
+        NativeQuery<?> query = (NativeQuery<?>) session.createNativeMutationQuery(sql);
+        query.addSynchronizedQuerySpace(table);
+        return query;
+    }
+
+    /**
+     * Rebuild the user rows of the reservations starting in [from, to) (all if from is null),
+     * streaming the distinct (day, utilisateur) pairs in day order
+     */
+    private void rebuildDailyUsers(Session session, LocalDateTime from, LocalDateTime to) {
+        Query<Object[]> query = session.createQuery(
+                "SELECT DISTINCT cast(r.dateDebut as LocalDate), r.utilisateur.id FROM Reservation r " +
+                        "WHERE r.dateDebut IS NOT NULL AND r.utilisateur IS NOT NULL" +
+                        (from != null ? RANGE : "") + " ORDER BY 1",
+                Object[].class);
+        if (from != null) {
+            query.setParameter("from", from).setParameter("to", to);
+        }
+        query.setFetchSize(FETCH_SIZE);
+
+        LocalDate day = null;
+        HyperLogLog sketch = null;
+        int users = 0;
+        try (ScrollableResults<Object[]> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                if (!row[0].equals(day)) {
+                    if (day != null) {
+                        saveDailyUsers(session, day, users, sketch);
+                    }
+                    day = (LocalDate) row[0];
+                    sketch = new HyperLogLog();
+                    users = 0;
+                }
+                sketch.add((Long) row[1]);
+                users++;
+            }
+        }
+        if (day != null) {
+            saveDailyUsers(session, day, users, sketch);
+        }
+    }
+
+    /** Sketches cannot forget an id: a changed day is rebuilt from the Reservation table */
+    private void recomputeDailyUsers(Session session, LocalDate day) {
+        List<Long> userIds = session.createQuery(
+                        "SELECT DISTINCT r.utilisateur.id FROM Reservation r " +
+                                "WHERE r.utilisateur IS NOT NULL" + RANGE, Long.class)
+                .setParameter("from", day.atStartOfDay())
+                .setParameter("to", day.plusDays(1).atStartOfDay())
+                .list();
+        ReservationDailyUsers row = session.get(ReservationDailyUsers.class, day);
+        if (userIds.isEmpty()) {
+            if (row != null) {
+                session.remove(row);
+            }
+            return;
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        userIds.forEach(sketch::add);
+        if (row == null) {
+            saveDailyUsers(session, day, userIds.size(), sketch);
+        } else {
+            row.setUserCount(userIds.size());
+            row.setUsersSketch(sketch.toBytes());
+        }
+    }
+
+    private void saveDailyUsers(Session session, LocalDate day, int users, HyperLogLog sketch) {
+        ReservationDailyUsers row = new ReservationDailyUsers();
+        row.setDay(day);
+        row.setUserCount(users);
+        row.setUsersSketch(sketch.toBytes());
+        session.persist(row);
+    }
+}
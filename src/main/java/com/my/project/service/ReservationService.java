@@ -4,21 +4,53 @@ import com.my.project.model.Reservation;
 import com.my.project.model.Salle;
 import com.my.project.model.Utilisateur;
 import com.my.project.util.HibernateUtil;
+import jakarta.persistence.LockModeType;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ReservationService extends BaseService<Reservation> {
 
+    /** Windows of up to this many days are counted exactly by getActiveUsersCount */
+    private static final int EXACT_WINDOW_DAYS = 7;
+
     public ReservationService() {
         super(Reservation.class);
     }
 
+    @Override
+    protected String fetchJoins() {
+        return "LEFT JOIN FETCH e.salle LEFT JOIN FETCH e.utilisateur LEFT JOIN FETCH e.validateurAdmin";
+    }
+
+    @Override
+    protected void afterSave(Reservation reservation) {
+        ReservationEvents.committed(reservation);
+    }
+
+    @Override
+    protected void afterUpdate(Reservation reservation) {
+        ReservationEvents.committed(reservation);
+    }
+
+    @Override
+    protected void afterDelete(Reservation reservation) {
+        ReservationEvents.deleted(reservation);
+    }
+
     /**
      * Get count of active reservations (current and future)
      */
@@ -105,56 +137,149 @@ public class ReservationService extends BaseService<Reservation> {
 
     /**
      * Check if salle is available for the given time period
+     * (approved and pending reservations block the slot)
      */
     public boolean isSalleAvailable(Salle salle, LocalDateTime debut, LocalDateTime fin) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Long> query = session.createQuery(
-                    "SELECT COUNT(r) FROM Reservation r WHERE r.salle = :salle " +
-                            "AND ((r.dateDebut <= :debut AND r.dateFin > :debut) " +
-                            "OR (r.dateDebut < :fin AND r.dateFin >= :fin) " +
-                            "OR (r.dateDebut >= :debut AND r.dateFin <= :fin))",
-                    Long.class);
-            query.setParameter("salle", salle);
-            query.setParameter("debut", debut);
-            query.setParameter("fin", fin);
-            return query.uniqueResult() == 0;
-        } catch (Exception e) {
-            System.err.println("Error checking salle availability: " + e.getMessage());
-            return false;
+        return !AvailabilityIndex.getInstance().hasConflict(salle.getId(), debut, fin, null,
+                Reservation.StatutReservation.APPROUVEE, Reservation.StatutReservation.EN_ATTENTE);
+    }
+
+    /**
+     * Check if an approved reservation other than excludeId overlaps the given time period
+     */
+    public boolean hasApprovedConflict(Salle salle, LocalDateTime debut, LocalDateTime fin, Long excludeId) {
+        return AvailabilityIndex.getInstance().hasConflict(salle.getId(), debut, fin, excludeId,
+                Reservation.StatutReservation.APPROUVEE);
+    }
+
+    /**
+     * Get the ids of the approved reservations other than excludeId overlapping the given time period
+     */
+    public List<Long> findApprovedConflicts(Salle salle, LocalDateTime debut, LocalDateTime fin, Long excludeId) {
+        return AvailabilityIndex.getInstance().findConflicts(salle.getId(), debut, fin, excludeId,
+                Reservation.StatutReservation.APPROUVEE);
+    }
+
+    /**
+     * Check, inside the caller's transaction, if an approved reservation other than excludeId
+     * overlaps the given time period. The salle row is locked first, so concurrent writes for
+     * the same salle, from any instance of the application, are checked one after the other.
+     * This is the final guard before a write; the index checks are only a fast pre-check.
+     */
+    public boolean hasApprovedConflict(Session session, Salle salle, LocalDateTime debut, LocalDateTime fin,
+                                       Long excludeId) {
+        session.find(Salle.class, salle.getId(), LockModeType.PESSIMISTIC_WRITE);
+        Query<Long> query = session.createQuery(
+                "SELECT COUNT(r) FROM Reservation r WHERE r.salle.id = :salleId AND r.statut = :statut " +
+                        "AND r.dateDebut < :fin AND r.dateFin > :debut" +
+                        (excludeId != null ? " AND r.id <> :excludeId" : ""),
+                Long.class);
+        query.setParameter("salleId", salle.getId());
+        query.setParameter("statut", Reservation.StatutReservation.APPROUVEE);
+        query.setParameter("debut", debut);
+        query.setParameter("fin", fin);
+        if (excludeId != null) {
+            query.setParameter("excludeId", excludeId);
         }
+        return query.uniqueResult() > 0;
     }
 
     /**
-     * Get occupancy rate for all salles
+     * Get, for each (salle, period) pair, the ids of the reservations with one of the
+     * given statuses overlapping it. All pairs are resolved with a single range query
+     * over their salles and an in-memory sweep of the sorted intervals. Every pair gets an
+     * entry; a failed query throws rather than reporting the pairs as free.
      */
-    public double getOccupancyRate() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Calculate total hours reserved today
-            LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-            LocalDateTime endOfDay = startOfDay.plusDays(1);
+    public Map<SlotRequest, List<Long>> findConflicts(Collection<SlotRequest> requests,
+                                                      Reservation.StatutReservation... statuts) {
+        Map<SlotRequest, List<Long>> result = new LinkedHashMap<>();
+        if (requests.isEmpty()) return result;
 
+        Set<Long> salleIds = new HashSet<>();
+        LocalDateTime min = null;
+        LocalDateTime max = null;
+        for (SlotRequest request : requests) {
+            salleIds.add(request.getSalleId());
+            if (min == null || request.getDebut().isBefore(min)) min = request.getDebut();
+            if (max == null || request.getFin().isAfter(max)) max = request.getFin();
+        }
+
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Object[]> query = session.createQuery(
-                    "SELECT SUM(TIMESTAMPDIFF(HOUR, r.dateDebut, r.dateFin)), COUNT(DISTINCT r.salle) " +
-                            "FROM Reservation r WHERE r.dateDebut >= :start AND r.dateDebut < :end",
+                    "SELECT r.id, r.salle.id, r.dateDebut, r.dateFin FROM Reservation r " +
+                            "WHERE r.salle.id IN (:salleIds) AND r.statut IN (:statuts) " +
+                            "AND r.dateDebut < :max AND r.dateFin > :min " +
+                            "ORDER BY r.dateDebut",
                     Object[].class);
-            query.setParameter("start", startOfDay);
-            query.setParameter("end", endOfDay);
+            query.setParameter("salleIds", salleIds);
+            query.setParameter("statuts", List.of(statuts));
+            query.setParameter("min", min);
+            query.setParameter("max", max);
 
-            Object[] result = query.uniqueResult();
-            if (result != null && result[0] != null && result[1] != null) {
-                double totalReservedHours = ((Number) result[0]).doubleValue();
-                int usedRooms = ((Number) result[1]).intValue();
+            // Rows arrive sorted by start, so every insert is an append
+            Map<Long, AvailabilityIndex.IntervalSet> bySalle = new HashMap<>();
+            for (Object[] row : query.list()) {
+                bySalle.computeIfAbsent((Long) row[1], id -> new AvailabilityIndex.IntervalSet())
+                        .insert(toKey((LocalDateTime) row[2]), toKey((LocalDateTime) row[3]), (Long) row[0]);
+            }
 
-                // Assuming 8 working hours per day per room
-                double totalAvailableHours = usedRooms * 8;
-                if (totalAvailableHours > 0) {
-                    return (totalReservedHours / totalAvailableHours) * 100;
+            for (SlotRequest request : requests) {
+                List<Long> conflicts = new ArrayList<>();
+                AvailabilityIndex.IntervalSet set = bySalle.get(request.getSalleId());
+                if (set != null) {
+                    set.collectOverlaps(toKey(request.getDebut()), toKey(request.getFin()),
+                            request.getExcludeId(), conflicts);
                 }
+                result.put(request, conflicts);
             }
-            return 0.0;
+            return result;
         } catch (Exception e) {
-            System.err.println("Error calculating occupancy rate: " + e.getMessage());
-            return 0.0;
+            throw new RuntimeException("Error checking slot availability", e);
+        }
+    }
+
+    private static long toKey(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Get today's occupancy rate for all salles, within their opening hours
+     */
+    public double getOccupancyRate() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        return OccupancyEngine.getInstance().compute(today, today.plusDays(1)).getGlobalRate();
+    }
+
+    /**
+     * Get the number of distinct utilisateurs with a reservation starting in [from, to). Windows
+     * of up to EXACT_WINDOW_DAYS days are counted exactly, longer ones from the union of the
+     * daily HyperLogLog sketches (about 1% error).
+     */
+    public int getActiveUsersCount(LocalDate from, LocalDate to) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            if (!from.plusDays(EXACT_WINDOW_DAYS).isBefore(to)) {
+                Query<Long> query = session.createQuery(
+                        "SELECT COUNT(DISTINCT r.utilisateur.id) FROM Reservation r " +
+                                "WHERE r.dateDebut >= :start AND r.dateDebut < :end", Long.class);
+                query.setParameter("start", from.atStartOfDay());
+                query.setParameter("end", to.atStartOfDay());
+                return Math.toIntExact(query.uniqueResult());
+            }
+
+            ReservationRollups.getInstance().awaitRefreshes();
+            Query<byte[]> query = session.createQuery(
+                    "SELECT d.usersSketch FROM ReservationDailyUsers d WHERE d.day >= :start AND d.day < :end",
+                    byte[].class);
+            query.setParameter("start", from);
+            query.setParameter("end", to);
+            HyperLogLog union = new HyperLogLog();
+            for (byte[] sketch : query.list()) {
+                union.merge(HyperLogLog.fromBytes(sketch));
+            }
+            return (int) union.estimate();
+        } catch (Exception e) {
+            System.err.println("Error getting active users count: " + e.getMessage());
+            return 0;
         }
     }
 
@@ -162,18 +287,22 @@ public class ReservationService extends BaseService<Reservation> {
      * Get monthly reservation statistics
      */
     public Map<String, Integer> getMonthlyStats() {
+        ReservationRollups.getInstance().awaitRefreshes();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            LocalDate firstDay = LocalDate.now().withDayOfYear(1);
             Query<Object[]> query = session.createQuery(
-                    "SELECT MONTH(r.dateDebut), COUNT(r) " +
-                            "FROM Reservation r " +
-                            "WHERE YEAR(r.dateDebut) = YEAR(CURRENT_DATE) " +
-                            "GROUP BY MONTH(r.dateDebut)",
+                    "SELECT MONTH(d.day), SUM(d.reservationCount) " +
+                            "FROM ReservationDailyRoom d " +
+                            "WHERE d.day >= :start AND d.day < :end " +
+                            "GROUP BY MONTH(d.day)",
                     Object[].class);
+            query.setParameter("start", firstDay);
+            query.setParameter("end", firstDay.plusYears(1));
 
             return query.list().stream()
                     .collect(Collectors.toMap(
                             row -> getMonthName((Integer) row[0]),
-                            row -> ((Long) row[1]).intValue()
+                            row -> ((Number) row[1]).intValue()
                     ));
         } catch (Exception e) {
             System.err.println("Error getting monthly statistics: " + e.getMessage());
@@ -188,10 +317,56 @@ public class ReservationService extends BaseService<Reservation> {
     }
 
     /**
-     * Get pending requests count (assuming you might add a status field later)
+     * Get count of reservations awaiting approval
      */
     public int getPendingRequestsCount() {
-        // For now, return upcoming reservations as "pending"
-        return getUpcomingReservations(100).size();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Long> query = session.createQuery(
+                    "SELECT COUNT(r) FROM Reservation r WHERE r.statut = :statut", Long.class);
+            query.setParameter("statut", Reservation.StatutReservation.EN_ATTENTE);
+            return Math.toIntExact(query.uniqueResult());
+        } catch (Exception e) {
+            System.err.println("Error getting pending requests count: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * A (salle, period) pair to check, optionally ignoring one reservation (the one being edited)
+     */
+    public static class SlotRequest {
+        private final Long salleId;
+        private final LocalDateTime debut;
+        private final LocalDateTime fin;
+        private final Long excludeId;
+
+        public SlotRequest(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+            this(salleId, debut, fin, null);
+        }
+
+        public SlotRequest(Long salleId, LocalDateTime debut, LocalDateTime fin, Long excludeId) {
+            this.salleId = salleId;
+            this.debut = debut;
+            this.fin = fin;
+            this.excludeId = excludeId;
+        }
+
+        public Long getSalleId() { return salleId; }
+        public LocalDateTime getDebut() { return debut; }
+        public LocalDateTime getFin() { return fin; }
+        public Long getExcludeId() { return excludeId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SlotRequest other)) return false;
+            return Objects.equals(salleId, other.salleId) && Objects.equals(debut, other.debut)
+                    && Objects.equals(fin, other.fin) && Objects.equals(excludeId, other.excludeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(salleId, debut, fin, excludeId);
+        }
     }
-}
\ No newline at end of file
+}
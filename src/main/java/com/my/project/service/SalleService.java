@@ -7,8 +7,15 @@ import org.hibernate.Session;
 import org.hibernate.query.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class SalleService extends BaseService<Salle> {
 
@@ -16,6 +23,26 @@ public class SalleService extends BaseService<Salle> {
         super(Salle.class);
     }
 
+    @Override
+    protected String collectionFetchJoins() {
+        return "LEFT JOIN FETCH e.equipements";
+    }
+
+    @Override
+    protected void afterSave(Salle salle) {
+        EquipementIndex.getInstance().invalidate();
+    }
+
+    @Override
+    protected void afterUpdate(Salle salle) {
+        EquipementIndex.getInstance().invalidate();
+    }
+
+    @Override
+    protected void afterDelete(Salle salle) {
+        EquipementIndex.getInstance().invalidate();
+    }
+
     /**
      * Get count of available salles
      */
@@ -108,14 +135,33 @@ public class SalleService extends BaseService<Salle> {
      * Get salles with specific equipment
      */
     public List<Salle> getSallesWithEquipement(Equipement equipement) {
+        return getSallesWithEquipements(List.of(equipement.getId()), 0);
+    }
+
+    /**
+     * Get available salles holding all the given equipements with at least the given capacity
+     */
+    public List<Salle> getSallesWithEquipements(Collection<Long> equipementIds, int minCapacite) {
+        return findByIds(EquipementIndex.getInstance().findSalleIds(equipementIds, minCapacite, true));
+    }
+
+    /**
+     * Load salles by id, keeping the order of the ids
+     */
+    public List<Salle> findByIds(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Salle> query = session.createQuery(
-                    "SELECT s FROM Salle s JOIN s.equipements e WHERE e = :equipement AND s.disponible = true",
-                    Salle.class);
-            query.setParameter("equipement", equipement);
-            return query.list();
+                    "FROM Salle s WHERE s.id IN (:ids)", Salle.class);
+            query.setParameter("ids", ids);
+            Map<Long, Salle> byId = query.list().stream()
+                    .collect(Collectors.toMap(Salle::getId, Function.identity()));
+            return ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error getting salles with equipment: " + e.getMessage());
+            System.err.println("Error getting salles by ids: " + e.getMessage());
             return List.of();
         }
     }
@@ -160,12 +206,7 @@ public class SalleService extends BaseService<Salle> {
                     "SELECT AVG(s.capacite) FROM Salle s", Double.class);
             double averageCapacity = avgQuery.uniqueResult() != null ? avgQuery.uniqueResult() : 0.0;
 
-            // Get room types count
-            Query<Object[]> typeQuery = session.createQuery(
-                    "SELECT s.type, COUNT(s) FROM Salle s GROUP BY s.type", Object[].class);
-            List<Object[]> typeResults = typeQuery.list();
-
-            return new RoomStats(totalRooms, availableRooms, occupiedRooms, averageCapacity, typeResults);
+            return new RoomStats(totalRooms, availableRooms, occupiedRooms, averageCapacity, getRoomTypeStats());
         } catch (Exception e) {
             System.err.println("Error getting room statistics: " + e.getMessage());
             return new RoomStats(0, 0, 0, 0.0, List.of());
@@ -173,28 +214,37 @@ public class SalleService extends BaseService<Salle> {
     }
 
     /**
-     * Get salles available at specific time
+     * Get the number of salles of each type, as {type, count} rows
      */
-    public List<Salle> getAvailableSallesAtTime(LocalDateTime debut, LocalDateTime fin) {
+    public List<Object[]> getRoomTypeStats() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Salle> query = session.createQuery(
-                    "SELECT s FROM Salle s WHERE s.disponible = true " +
-                            "AND s NOT IN (" +
-                            "    SELECT r.salle FROM Reservation r " +
-                            "    WHERE ((r.dateDebut <= :debut AND r.dateFin > :debut) " +
-                            "    OR (r.dateDebut < :fin AND r.dateFin >= :fin) " +
-                            "    OR (r.dateDebut >= :debut AND r.dateFin <= :fin))" +
-                            ") ORDER BY s.nom",
-                    Salle.class);
-            query.setParameter("debut", debut);
-            query.setParameter("fin", fin);
+            Query<Object[]> query = session.createQuery(
+                    "SELECT s.type, COUNT(s) FROM Salle s GROUP BY s.type", Object[].class);
             return query.list();
         } catch (Exception e) {
-            System.err.println("Error getting available salles at time: " + e.getMessage());
+            System.err.println("Error getting room type statistics: " + e.getMessage());
             return List.of();
         }
     }
 
+    /**
+     * Get salles available at specific time
+     */
+    public List<Salle> getAvailableSallesAtTime(LocalDateTime debut, LocalDateTime fin) {
+        return filterFreeAt(getAvailableSalles(), debut, fin, true);
+    }
+
+    /**
+     * Keep only the salles whose occupancy calendar is free over the given period
+     */
+    public List<Salle> filterFreeAt(List<Salle> salles, LocalDateTime debut, LocalDateTime fin, boolean includePending) {
+        Set<Long> free = new HashSet<>(OccupancyCalendar.getInstance().filterFree(
+                salles.stream().map(Salle::getId).toList(), debut, fin, includePending));
+        return salles.stream()
+                .filter(s -> free.contains(s.getId()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Inner class for room statistics
      */
@@ -0,0 +1,200 @@
+package com.my.project.service;
+
+import com.my.project.model.Reservation;
+import com.my.project.model.Salle;
+import com.my.project.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Room suggestions for a requested slot. Candidate salles come from the equipement
+ * index, the day's blocking reservations are loaded with a single query, then every
+ * salle's free gaps are swept in memory and the best (salle, slot) pairs are ranked.
+ */
+public class SuggestionService {
+
+    private static final LocalTime OPENING = LocalTime.of(8, 0);
+    private static final LocalTime CLOSING = LocalTime.of(20, 0);
+
+    // Score weights: being close to the requested time matters most
+    private static final double TIME_WEIGHT = 0.5;
+    private static final double EQUIPMENT_WEIGHT = 0.3;
+    private static final double CAPACITY_WEIGHT = 0.2;
+
+    /**
+     * Get the top-k suggestions for a slot, best first
+     */
+    public List<Suggestion> suggest(LocalDateTime debut, LocalDateTime fin, int capacite,
+                                    Collection<String> equipementsSouhaites, int k) {
+        if (!fin.isAfter(debut) || k <= 0) return List.of();
+
+        LocalDate date = debut.toLocalDate();
+        LocalDateTime windowStart = date.atTime(OPENING).isBefore(debut) ? date.atTime(OPENING) : debut;
+        LocalDateTime windowEnd = date.atTime(CLOSING).isAfter(fin) ? date.atTime(CLOSING) : fin;
+        long duree = Duration.between(debut, fin).toMinutes();
+        List<String> souhaites = equipementsSouhaites.stream().distinct().sorted().toList();
+
+        EquipementIndex equipementIndex = EquipementIndex.getInstance();
+        List<Long> candidats = equipementIndex.findSalleIds(List.of(), capacite, true);
+        if (candidats.isEmpty()) return List.of();
+
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            List<Salle> salles = session.createQuery(
+                            "FROM Salle s WHERE s.id IN (:ids)", Salle.class)
+                    .setParameter("ids", candidats)
+                    .list();
+            if (salles.isEmpty()) return List.of();
+
+            Map<Long, List<LocalDateTime[]>> occupation = loadOccupation(session, salles, windowStart, windowEnd);
+
+            PriorityQueue<Suggestion> best = new PriorityQueue<>(Comparator.comparingDouble(Suggestion::getScore));
+            for (Salle salle : salles) {
+                List<String> manquants = equipementIndex.getMissingEquipements(salle.getId(), souhaites);
+                double equipementScore = souhaites.isEmpty() ? 1.0
+                        : (double) (souhaites.size() - manquants.size()) / souhaites.size();
+                double capaciteScore = (double) capacite / Math.max(1, salle.getCapacite());
+
+                // Sweep the sorted busy intervals: each free gap offers the start closest to the requested one
+                Suggestion meilleure = null;
+                LocalDateTime curseur = windowStart;
+                for (LocalDateTime[] occupe : occupation.getOrDefault(salle.getId(), List.of())) {
+                    if (occupe[0].isAfter(curseur)) {
+                        meilleure = mieux(meilleure, creneau(salle, curseur, occupe[0], debut, duree,
+                                manquants, equipementScore, capaciteScore));
+                    }
+                    if (occupe[1].isAfter(curseur)) {
+                        curseur = occupe[1];
+                    }
+                }
+                meilleure = mieux(meilleure, creneau(salle, curseur, windowEnd, debut, duree,
+                        manquants, equipementScore, capaciteScore));
+
+                if (meilleure == null) continue;
+                if (best.size() < k) {
+                    best.add(meilleure);
+                } else if (best.peek().getScore() < meilleure.getScore()) {
+                    best.poll();
+                    best.add(meilleure);
+                }
+            }
+
+            List<Suggestion> result = new ArrayList<>(best);
+            result.sort(Comparator.comparingDouble(Suggestion::getScore).reversed()
+                    .thenComparing(s -> s.getSalle().getNom()));
+            return result;
+        } catch (Exception e) {
+            System.err.println("Error computing room suggestions: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Get every salle, by name, free over the exact requested slot with the capacity and all
+     * the wanted equipements. Unlike suggest, the result is not capped.
+     */
+    public List<Salle> findAvailable(LocalDateTime debut, LocalDateTime fin, int capacite,
+                                     Collection<String> equipementsSouhaites) {
+        if (!fin.isAfter(debut)) return List.of();
+
+        List<Long> candidats = EquipementIndex.getInstance().findSalleIdsByNoms(equipementsSouhaites, capacite, true);
+        if (candidats.isEmpty()) return List.of();
+
+        // One bitmap pass over every candidate salle
+        List<Long> libres = OccupancyCalendar.getInstance().filterFree(candidats, debut, fin, true);
+        if (libres.isEmpty()) return List.of();
+
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                            "FROM Salle s WHERE s.id IN (:ids) ORDER BY s.nom", Salle.class)
+                    .setParameter("ids", libres)
+                    .list();
+        }
+    }
+
+    /**
+     * Approved and pending reservations of the candidate salles intersecting the window, sorted by start
+     */
+    private Map<Long, List<LocalDateTime[]>> loadOccupation(Session session, List<Salle> salles,
+                                                            LocalDateTime start, LocalDateTime end) {
+        Query<Object[]> query = session.createQuery(
+                "SELECT r.salle.id, r.dateDebut, r.dateFin FROM Reservation r " +
+                        "WHERE r.salle.id IN (:ids) AND r.statut IN (:statuts) " +
+                        "AND r.dateDebut < :end AND r.dateFin > :start " +
+                        "ORDER BY r.dateDebut",
+                Object[].class);
+        query.setParameter("ids", salles.stream().map(Salle::getId).toList());
+        query.setParameter("statuts", List.of(
+                Reservation.StatutReservation.APPROUVEE, Reservation.StatutReservation.EN_ATTENTE));
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+
+        Map<Long, List<LocalDateTime[]>> occupation = new HashMap<>();
+        for (Object[] row : query.list()) {
+            occupation.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new LocalDateTime[]{(LocalDateTime) row[1], (LocalDateTime) row[2]});
+        }
+        return occupation;
+    }
+
+    /**
+     * Best slot of the given duration inside a free gap, or null if it does not fit
+     */
+    private Suggestion creneau(Salle salle, LocalDateTime debutTrou, LocalDateTime finTrou,
+                               LocalDateTime souhaite, long duree,
+                               List<String> manquants, double equipementScore, double capaciteScore) {
+        LocalDateTime dernierDebut = finTrou.minusMinutes(duree);
+        if (dernierDebut.isBefore(debutTrou)) return null;
+
+        LocalDateTime debut = souhaite.isBefore(debutTrou) ? debutTrou
+                : souhaite.isAfter(dernierDebut) ? dernierDebut : souhaite;
+        long ecart = Math.abs(Duration.between(souhaite, debut).toMinutes());
+        double tempsScore = 1.0 - Math.min(1.0, ecart / (double) Duration.between(OPENING, CLOSING).toMinutes());
+        double score = TIME_WEIGHT * tempsScore + EQUIPMENT_WEIGHT * equipementScore + CAPACITY_WEIGHT * capaciteScore;
+
+        return new Suggestion(salle, debut, debut.plusMinutes(duree), score, manquants);
+    }
+
+    private Suggestion mieux(Suggestion a, Suggestion b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.getScore() > a.getScore() ? b : a;
+    }
+
+    /**
+     * A suggested salle and slot with its ranking score
+     */
+    public static class Suggestion {
+        private final Salle salle;
+        private final LocalDateTime debut;
+        private final LocalDateTime fin;
+        private final double score;
+        private final List<String> equipementsManquants;
+
+        public Suggestion(Salle salle, LocalDateTime debut, LocalDateTime fin, double score,
+                          List<String> equipementsManquants) {
+            this.salle = salle;
+            this.debut = debut;
+            this.fin = fin;
+            this.score = score;
+            this.equipementsManquants = equipementsManquants;
+        }
+
+        public Salle getSalle() { return salle; }
+        public LocalDateTime getDebut() { return debut; }
+        public LocalDateTime getFin() { return fin; }
+        public double getScore() { return score; }
+        public List<String> getEquipementsManquants() { return equipementsManquants; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.my.project.util;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hit/miss counters of the second-level cache, read from Hibernate statistics
+ */
+public class CacheMetrics {
+
+    /**
+     * Get second-level cache statistics, overall and per region
+     */
+    public static CacheStatistics snapshot(SessionFactory sessionFactory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<RegionStatistics> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(region);
+            regions.add(new RegionStatistics(region, regionStats.getHitCount(), regionStats.getMissCount(),
+                    regionStats.getPutCount(), regionStats.getElementCountInMemory()));
+        }
+        return new CacheStatistics(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                regions);
+    }
+
+    /**
+     * Inner class for second-level cache statistics
+     */
+    public static class CacheStatistics {
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long queryHits;
+        private final long queryMisses;
+        private final List<RegionStatistics> regions;
+
+        public CacheStatistics(long hits, long misses, long puts, long queryHits, long queryMisses,
+                               List<RegionStatistics> regions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.queryHits = queryHits;
+            this.queryMisses = queryMisses;
+            this.regions = regions;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getPuts() { return puts; }
+        public long getQueryHits() { return queryHits; }
+        public long getQueryMisses() { return queryMisses; }
+        public List<RegionStatistics> getRegions() { return regions; }
+        public double getHitRatio() {
+            return hits + misses > 0 ? ((double) hits / (hits + misses)) * 100 : 0.0;
+        }
+    }
+
+    public static class RegionStatistics {
+        private final String region;
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long elements;
+
+        public RegionStatistics(String region, long hits, long misses, long puts, long elements) {
+            this.region = region;
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.elements = elements;
+        }
+
+        public String getRegion() { return region; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getPuts() { return puts; }
+        public long getElements() { return elements; }
+    }
+}
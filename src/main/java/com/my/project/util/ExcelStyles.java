@@ -0,0 +1,88 @@
+package com.my.project.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.time.LocalDateTime;
+
+/**
+ * Streamed workbooks and the cell styles their rows share. A workbook keeps only
+ * ROW_WINDOW rows on the heap and flushes older ones to a compressed temp file, so
+ * exports use the same memory whatever their size; styles are created once per
+ * workbook instead of once per cell.
+ */
+public class ExcelStyles {
+
+    /** Rows kept in memory per sheet */
+    public static final int ROW_WINDOW = 100;
+
+    private final CellStyle header;
+    private final CellStyle dateTime;
+    private final CellStyle decimal;
+
+    public ExcelStyles(Workbook workbook) {
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        header = workbook.createCellStyle();
+        header.setFont(bold);
+
+        dateTime = workbook.createCellStyle();
+        dateTime.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+
+        decimal = workbook.createCellStyle();
+        decimal.setDataFormat(workbook.createDataFormat().getFormat("0.0"));
+    }
+
+    /**
+     * Create a streamed workbook; call dispose() once written to delete its temp files
+     */
+    public static SXSSFWorkbook newStreamingWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+    /**
+     * Write the bold header row
+     */
+    public void writeHeader(Sheet sheet, String... titles) {
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < titles.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(titles[i]);
+            cell.setCellStyle(header);
+        }
+    }
+
+    /**
+     * Write a date cell, empty if the value is null
+     */
+    public void setDateTime(Cell cell, LocalDateTime value) {
+        if (value != null) {
+            cell.setCellValue(value);
+            cell.setCellStyle(dateTime);
+        }
+    }
+
+    /**
+     * Write a number cell with one decimal
+     */
+    public void setDecimal(Cell cell, double value) {
+        cell.setCellValue(value);
+        cell.setCellStyle(decimal);
+    }
+
+    /**
+     * Set column widths in characters; streamed rows are gone by the time columns could be auto-sized
+     */
+    public static void setColumnWidths(Sheet sheet, int... widths) {
+        for (int i = 0; i < widths.length; i++) {
+            sheet.setColumnWidth(i, widths[i] * 256);
+        }
+    }
+}
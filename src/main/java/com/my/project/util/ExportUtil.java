@@ -1,41 +1,54 @@
 package com.my.project.util;
 
-import com.my.project.model.Reservation;
+import com.my.project.model.ExportRow;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.pdf.PdfWriter;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.PrintWriter;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ExportUtil {
 
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
-    public static void exportPDF(List<Reservation> reservations, File file) {
+    public static void exportPDF(List<ExportRow> reservations, File file) {
+        exportPDF(reservations.stream(), file);
+    }
+
+    /**
+     * Export reservations as they come, laying out the table every few rows instead of holding it
+     */
+    public static void exportPDF(Stream<ExportRow> reservations, File file) {
         Document doc = new Document();
         try {
             PdfWriter.getInstance(doc, new FileOutputStream(file));
             doc.open();
-            doc.add(new Paragraph("Liste des réservations\n\n"));
-
-            for (Reservation r : reservations) {
-                String line = String.format(
-                        "Salle: %s\nUtilisateur: %s\nDébut: %s\nFin: %s\nDescription: %s\n\n",
-                        r.getSalle().getNom(),
-                        r.getUtilisateur().getEmail(),
-                        r.getDateDebut().format(formatter),
-                        r.getDateFin().format(formatter),
-                        r.getDescription());
-                doc.add(new Paragraph(line));
+            doc.add(new Paragraph("Liste des réservations", PdfStyles.SECTION));
+            doc.add(new Paragraph(" "));
+
+            PdfStyles.StreamingTable table = new PdfStyles.StreamingTable(doc, 100,
+                    "Salle", "Utilisateur", "Début", "Fin", "Description");
+            Iterator<ExportRow> it = reservations.iterator();
+            while (it.hasNext()) {
+                ExportRow r = it.next();
+                table.addRow(r.salleNom(),
+                        r.utilisateurEmail(),
+                        format(r.dateDebut()),
+                        format(r.dateFin()),
+                        r.description());
             }
+            table.finish();
 
         } catch (DocumentException | java.io.IOException e) {
             e.printStackTrace();
@@ -44,32 +57,72 @@ public class ExportUtil {
         }
     }
 
-    public static void exportExcel(List<Reservation> reservations, File file) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+    public static void exportExcel(List<ExportRow> reservations, File file) {
+        exportExcel(reservations.stream(), file);
+    }
+
+    /**
+     * Export reservations as they come, e.g. from a scrolling cursor, keeping only a window of rows in memory
+     */
+    public static void exportExcel(Stream<ExportRow> reservations, File file) {
+        SXSSFWorkbook workbook = ExcelStyles.newStreamingWorkbook();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            ExcelStyles styles = new ExcelStyles(workbook);
             Sheet sheet = workbook.createSheet("Réservations");
 
-            Row header = sheet.createRow(0);
-            String[] titles = {"Salle", "Utilisateur", "Date début", "Date fin", "Description"};
-            for (int i = 0; i < titles.length; i++) {
-                header.createCell(i).setCellValue(titles[i]);
-            }
+            styles.writeHeader(sheet, "Salle", "Utilisateur", "Date début", "Date fin", "Description");
+            ExcelStyles.setColumnWidths(sheet, 20, 30, 17, 17, 40);
 
-            int rowNum = 1;
-            for (Reservation r : reservations) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(r.getSalle().getNom());
-                row.createCell(1).setCellValue(r.getUtilisateur().getEmail());
-                row.createCell(2).setCellValue(r.getDateDebut().format(formatter));
-                row.createCell(3).setCellValue(r.getDateFin().format(formatter));
-                row.createCell(4).setCellValue(r.getDescription());
-            }
+            int[] rowNum = {1};
+            reservations.forEach(r -> {
+                Row row = sheet.createRow(rowNum[0]++);
+                row.createCell(0).setCellValue(r.salleNom());
+                row.createCell(1).setCellValue(r.utilisateurEmail());
+                styles.setDateTime(row.createCell(2), r.dateDebut());
+                styles.setDateTime(row.createCell(3), r.dateFin());
+                row.createCell(4).setCellValue(r.description());
+            });
 
-            try (FileOutputStream out = new FileOutputStream(file)) {
-                workbook.write(out);
+            workbook.write(out);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (Exception e) {
+                e.printStackTrace();
             }
+        }
+    }
 
+    public static void exportCSV(List<ExportRow> reservations, File file) {
+        exportCSV(reservations.stream(), file);
+    }
+
+    /**
+     * Export reservations to a .csv, .tsv, .csv.gz or .tsv.gz file as they come
+     */
+    public static void exportCSV(Stream<ExportRow> reservations, File file) {
+        try (CsvWriter csv = CsvWriter.forFile(file)) {
+            csv.writeRow("Salle", "Utilisateur", "Date début", "Date fin", "Description");
+            Iterator<ExportRow> it = reservations.iterator();
+            while (it.hasNext()) {
+                ExportRow r = it.next();
+                csv.field(r.salleNom())
+                        .field(r.utilisateurEmail())
+                        .field(r.dateDebut())
+                        .field(r.dateFin())
+                        .field(r.description())
+                        .endRow();
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(formatter) : "";
+    }
 }
@@ -1,26 +1,138 @@
 package com.my.project.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
 public class HibernateUtil {
+
+    /** System property pointing to an external pool configuration; ./db.properties is tried next */
+    private static final String DB_CONFIG_PROPERTY = "db.config";
+    private static final String DB_CONFIG_FILE = "db.properties";
+
+    /** Must match the allocationSize of the entities' @TableGenerator */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    /** Generator row (pkColumnValue) of each entity in the id_generator table */
+    private static final Map<String, String> ID_GENERATORS = Map.of(
+            "Utilisateur", "utilisateur",
+            "Salle", "salle",
+            "Reservation", "reservation",
+            "Equipement", "equipement");
+
+    private static final PoolMetrics poolMetrics = new PoolMetrics();
+    private static HikariDataSource dataSource;
     private static final SessionFactory sessionFactory = buildSessionFactory();
 
     private static SessionFactory buildSessionFactory() {
         try {
-            // Crée la session à partir du fichier hibernate.cfg.xml
-            return new Configuration().configure().buildSessionFactory();
+            HikariConfig poolConfig = new HikariConfig(loadDatabaseProperties());
+            poolConfig.setMetricsTrackerFactory(poolMetrics);
+            dataSource = new HikariDataSource(poolConfig);
+
+            // Crée la session à partir du fichier hibernate.cfg.xml, sur le pool HikariCP
+            Configuration configuration = new Configuration().configure();
+            configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+            SessionFactory factory = configuration.buildSessionFactory();
+            alignIdGenerators(factory);
+            return factory;
         } catch (Throwable ex) {
             System.err.println("Erreur lors de l'initialisation de la SessionFactory: " + ex);
+            if (dataSource != null) {
+                dataSource.close();
+            }
             throw new ExceptionInInitializerError(ex);
         }
     }
 
+    /**
+     * Pool settings (HikariCP keys) from -Ddb.config, else ./db.properties, else the bundled defaults
+     */
+    private static Properties loadDatabaseProperties() throws IOException {
+        Properties properties = new Properties();
+        String configured = System.getProperty(DB_CONFIG_PROPERTY);
+        Path external = Path.of(configured != null ? configured : DB_CONFIG_FILE);
+        if (Files.isRegularFile(external)) {
+            try (InputStream in = Files.newInputStream(external)) {
+                properties.load(in);
+            }
+            return properties;
+        }
+        if (configured != null) {
+            throw new IOException("Fichier de configuration introuvable: " + configured);
+        }
+        try (InputStream in = HibernateUtil.class.getResourceAsStream("/" + DB_CONFIG_FILE)) {
+            if (in == null) {
+                throw new IOException("Fichier de configuration introuvable: " + DB_CONFIG_FILE);
+            }
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    /**
+     * Rows created before the switch from IDENTITY to pooled table generators keep their
+     * auto-increment ids: move every generator past the current maximum id so that the
+     * next allocated block cannot collide with them.
+     */
+    private static void alignIdGenerators(SessionFactory factory) {
+        try (Session session = factory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            for (Map.Entry<String, String> generator : ID_GENERATORS.entrySet()) {
+                Long maxId = session.createQuery(
+                        "SELECT COALESCE(MAX(e.id), 0) FROM " + generator.getKey() + " e", Long.class).uniqueResult();
+                long floor = maxId + 1 + ID_ALLOCATION_SIZE;
+
+                int updated = session.createNativeMutationQuery(
+                                "UPDATE id_generator SET next_val = GREATEST(next_val, :floor) WHERE sequence_name = :name")
+                        .setParameter("floor", floor)
+                        .setParameter("name", generator.getValue())
+                        .executeUpdate();
+                if (updated == 0) {
+                    session.createNativeMutationQuery(
+                                    "INSERT INTO id_generator (sequence_name, next_val) VALUES (:name, :floor)")
+                            .setParameter("name", generator.getValue())
+                            .setParameter("floor", floor)
+                            .executeUpdate();
+                }
+            }
+            tx.commit();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de l'alignement des générateurs d'identifiants: " + e.getMessage());
+        }
+    }
+
     public static SessionFactory getSessionFactory() {
         return sessionFactory;
     }
 
+    /**
+     * Get connection pool statistics (active, idle, waiting, acquire times)
+     */
+    public static PoolMetrics.PoolStatistics getPoolStatistics() {
+        return poolMetrics.snapshot(dataSource.getHikariPoolMXBean(), dataSource.getMaximumPoolSize());
+    }
+
+    /**
+     * Get second-level cache hit/miss statistics
+     */
+    public static CacheMetrics.CacheStatistics getCacheStatistics() {
+        return CacheMetrics.snapshot(sessionFactory);
+    }
+
     public static void shutdown() {
         getSessionFactory().close();
+        dataSource.close();
     }
 }
@@ -0,0 +1,93 @@
+package com.my.project.util;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+
+/**
+ * Fonts shared by all PDF exports, and tables written to the document in chunks: an
+ * incomplete table is flushed every CHUNK_ROWS rows, so only the rows of the current
+ * chunk are kept in memory whatever the size of the report.
+ */
+public class PdfStyles {
+
+    /** Rows kept in memory per table before they are laid out */
+    public static final int CHUNK_ROWS = 500;
+
+    public static final Font TITLE = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.DARK_GRAY);
+    public static final Font SUBTITLE = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, BaseColor.GRAY);
+    public static final Font SECTION = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
+    public static final Font SUBSECTION = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    public static final Font HEADER = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, BaseColor.WHITE);
+    public static final Font CELL = new Font(Font.FontFamily.HELVETICA, 9);
+    public static final Font FOOTER = new Font(Font.FontFamily.HELVETICA, 8, Font.ITALIC, BaseColor.GRAY);
+
+    public static final BaseColor HEADER_BACKGROUND = BaseColor.DARK_GRAY;
+
+    private PdfStyles() {
+    }
+
+    /**
+     * Create a table with a header row
+     */
+    public static PdfPTable newTable(float widthPercentage, String... headers) {
+        PdfPTable table = new PdfPTable(headers.length);
+        table.setWidthPercentage(widthPercentage);
+        table.setSpacingAfter(15);
+        for (String header : headers) {
+            addHeader(table, header);
+        }
+        table.setHeaderRows(1);
+        return table;
+    }
+
+    public static void addHeader(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER));
+        cell.setBackgroundColor(HEADER_BACKGROUND);
+        cell.setPadding(5);
+        table.addCell(cell);
+    }
+
+    public static void addCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text != null ? text : "", CELL));
+        cell.setPadding(3);
+        table.addCell(cell);
+    }
+
+    /**
+     * Inner class for a table laid out every CHUNK_ROWS rows, header repeated on each page
+     */
+    public static class StreamingTable {
+        private final Document document;
+        private final PdfPTable table;
+        private int rows;
+
+        public StreamingTable(Document document, float widthPercentage, String... headers) {
+            this.document = document;
+            this.table = newTable(widthPercentage, headers);
+            // Rows already added to the document are dropped from the table
+            table.setComplete(false);
+        }
+
+        public void addRow(String... values) throws DocumentException {
+            for (String value : values) {
+                addCell(table, value);
+            }
+            if (++rows % CHUNK_ROWS == 0) {
+                document.add(table);
+            }
+        }
+
+        /**
+         * Lay out the remaining rows and close the table
+         */
+        public void finish() throws DocumentException {
+            table.setComplete(true);
+            document.add(table);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.my.project.util;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Connection pool metrics: HikariCP reports every connection acquisition here and
+ * the acquire times are counted in fixed millisecond buckets.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    /** Upper bounds (exclusive, in ms) of the acquire-time buckets; a last bucket holds the rest */
+    private static final long[] BUCKET_BOUNDS_MS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final AtomicLongArray acquireBuckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalAcquireNanos = new AtomicLong();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos);
+                int bucket = 0;
+                while (bucket < BUCKET_BOUNDS_MS.length && millis >= BUCKET_BOUNDS_MS[bucket]) {
+                    bucket++;
+                }
+                acquireBuckets.incrementAndGet(bucket);
+                acquisitions.incrementAndGet();
+                totalAcquireNanos.addAndGet(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Get current pool state and acquire-time statistics
+     */
+    public PoolStatistics snapshot(HikariPoolMXBean pool, int maximumPoolSize) {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < acquireBuckets.length(); i++) {
+            String label = i < BUCKET_BOUNDS_MS.length
+                    ? "< " + BUCKET_BOUNDS_MS[i] + " ms"
+                    : ">= " + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + " ms";
+            histogram.put(label, acquireBuckets.get(i));
+        }
+
+        long count = acquisitions.get();
+        double averageMs = count > 0 ? totalAcquireNanos.get() / (double) count / 1_000_000 : 0.0;
+        return new PoolStatistics(
+                pool != null ? pool.getActiveConnections() : 0,
+                pool != null ? pool.getIdleConnections() : 0,
+                pool != null ? pool.getThreadsAwaitingConnection() : 0,
+                maximumPoolSize,
+                count,
+                timeouts.get(),
+                averageMs,
+                maxAcquireNanos.get() / 1_000_000.0,
+                histogram);
+    }
+
+    /**
+     * Inner class for connection pool statistics
+     */
+    public static class PoolStatistics {
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int threadsAwaiting;
+        private final int maximumPoolSize;
+        private final long acquisitions;
+        private final long timeouts;
+        private final double averageAcquireMs;
+        private final double maxAcquireMs;
+        private final Map<String, Long> acquireHistogram;
+
+        public PoolStatistics(int activeConnections, int idleConnections, int threadsAwaiting, int maximumPoolSize,
+                              long acquisitions, long timeouts, double averageAcquireMs, double maxAcquireMs,
+                              Map<String, Long> acquireHistogram) {
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.threadsAwaiting = threadsAwaiting;
+            this.maximumPoolSize = maximumPoolSize;
+            this.acquisitions = acquisitions;
+            this.timeouts = timeouts;
+            this.averageAcquireMs = averageAcquireMs;
+            this.maxAcquireMs = maxAcquireMs;
+            this.acquireHistogram = acquireHistogram;
+        }
+
+        public int getActiveConnections() { return activeConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getThreadsAwaiting() { return threadsAwaiting; }
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public long getAcquisitions() { return acquisitions; }
+        public long getTimeouts() { return timeouts; }
+        public double getAverageAcquireMs() { return averageAcquireMs; }
+        public double getMaxAcquireMs() { return maxAcquireMs; }
+        public Map<String, Long> getAcquireHistogram() { return acquireHistogram; }
+    }
+}
@@ -0,0 +1,34 @@
+package com.my.project.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool shared by the services that fetch independent data concurrently (dashboard,
+ * reports). Its threads are daemons, so nobody has to shut it down and creating a service
+ * no longer creates a pool.
+ */
+public final class SharedExecutor {
+
+    /** Concurrent fetches, kept well below the connection pool size */
+    private static final int THREADS = 4;
+
+    private static final ExecutorService executor = createExecutor();
+
+    private SharedExecutor() {
+    }
+
+    public static ExecutorService get() {
+        return executor;
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "shared-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}